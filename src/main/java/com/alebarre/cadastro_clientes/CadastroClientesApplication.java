@@ -2,8 +2,10 @@ package com.alebarre.cadastro_clientes;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CadastroClientesApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,16 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.time.LocalDate;
+
+// Próximo aniversário a partir de hoje; idade = idade que o cliente completa nessa data
+public record AniversarianteDTO(
+        Long id,
+        String nome,
+        String email,
+        String telefone,
+        boolean enabled,
+        LocalDate dataNascimento,
+        LocalDate proximoAniversario,
+        int idade,
+        long diasAte
+) {}
@@ -0,0 +1,4 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+// Só o necessário para autorizar uma requisição com JWT (sem senha nem dados pessoais)
+public record AppUserStatusDTO(boolean enabled, String roles) {}
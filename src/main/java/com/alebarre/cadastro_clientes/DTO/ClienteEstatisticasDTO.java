@@ -0,0 +1,15 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import com.alebarre.cadastro_clientes.DTO.RelatorioAgregadosDTO.Grupo;
+
+import java.time.Instant;
+import java.util.List;
+
+// Totais mantidos incrementalmente (tabela cliente_estatistica), sem varrer cliente
+public record ClienteEstatisticasDTO(
+        long total,
+        List<Grupo> porStatus,
+        List<Grupo> porModalidade,
+        List<Grupo> porUf,
+        Instant ultimaReconciliacao
+) {}
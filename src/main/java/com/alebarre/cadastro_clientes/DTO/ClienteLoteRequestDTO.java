@@ -0,0 +1,13 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.List;
+
+// Operação em lote: alvo por "ids" OU por "filtro" (um dos dois)
+public record ClienteLoteRequestDTO(
+        @NotBlank String acao, // ativar | desativar | atribuirModalidade | removerModalidade | excluir
+        List<Long> ids,
+        RelatorioFiltroDTO filtro,
+        Long modalidadeId
+) {}
@@ -0,0 +1,4 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+// alvos = clientes selecionados; afetados = linhas realmente alteradas/removidas
+public record ClienteLoteResultadoDTO(String acao, int alvos, int afetados) {}
@@ -16,6 +16,15 @@ public record ClienteSummaryDTO(
         int quantidadeModalidades,
         LocalDate dataNascimento
 ) {
+    // usado pela projeção JPQL (ClienteRepository): as 2 primeiras cidades distintas, COUNT como Long
+    public ClienteSummaryDTO(Long id, String nome, Boolean enabled, String email, String telefone,
+                             String cidade1, String cidade2, Long quantidadeModalidades, LocalDate dataNascimento) {
+        this(id, nome, enabled, email, telefone,
+                cidade1 == null ? "" : cidade2 == null ? cidade1 : cidade1 + " | " + cidade2,
+                quantidadeModalidades == null ? 0 : quantidadeModalidades.intValue(),
+                dataNascimento);
+    }
+
     public static ClienteSummaryDTO fromEntity(Cliente c) {
         // monta o resumo de cidades (máx. 2, separados por " | ")
         List<String> cidades = c.getEnderecos() == null ? List.of()
@@ -0,0 +1,13 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.util.List;
+
+// Página keyset: "next"/"previous" são tokens opacos p/ ?after= / ?before=
+public record CursorPageDTO<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        boolean hasPrevious,
+        String next,
+        String previous
+) {}
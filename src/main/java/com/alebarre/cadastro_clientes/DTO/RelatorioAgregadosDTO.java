@@ -0,0 +1,15 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.util.List;
+
+// Contagens do relatório calculadas no banco (GROUP BY), para o dashboard
+public record RelatorioAgregadosDTO(
+        long total,
+        List<Grupo> porStatus,
+        List<Grupo> porFaixaEtaria,
+        List<Grupo> porModalidade,
+        List<Grupo> porUf
+) {
+    // chave = valor agrupado (status, faixa "18-29", id da modalidade, UF); rotulo = texto p/ exibição
+    public record Grupo(String chave, String rotulo, long total) {}
+}
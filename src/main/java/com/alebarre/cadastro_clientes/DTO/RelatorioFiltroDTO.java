@@ -0,0 +1,14 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.util.List;
+
+// Mesmos filtros do GET /api/relatorios/clientes, para uso em corpo de requisição
+public record RelatorioFiltroDTO(
+        Boolean ativos,
+        Boolean inativos,
+        Integer idadeMin,
+        Integer idadeMax,
+        List<Long> modalidades,
+        String match, // any (padrão) | all | none
+        String expressao // mesmo que ?filtro= (ex.: uf==SP;idade=ge=18)
+) {}
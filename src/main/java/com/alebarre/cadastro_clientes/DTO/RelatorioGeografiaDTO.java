@@ -0,0 +1,11 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.util.List;
+
+// Clientes por UF (cada cliente conta 1x por UF) e as N cidades com mais clientes em cada UF
+public record RelatorioGeografiaDTO(List<Uf> ufs) {
+
+    public record Uf(String uf, long clientes, List<Cidade> cidades) {}
+
+    public record Cidade(String cidade, long clientes) {}
+}
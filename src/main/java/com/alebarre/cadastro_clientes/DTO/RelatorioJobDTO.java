@@ -0,0 +1,17 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.time.Instant;
+
+// Estado de um job de relatório; "download" só vem preenchido quando status = CONCLUIDO
+public record RelatorioJobDTO(
+        String id,
+        String status,
+        String formato,
+        Instant criadoEm,
+        Instant concluidoEm,
+        Instant expiraEm,
+        long linhas,
+        long tamanhoBytes,
+        String erro,
+        String download
+) {}
@@ -0,0 +1,7 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+// formato: csv (gravado como .csv.gz) ou xlsx; filtro = mesmos filtros do relatório (opcional)
+public record RelatorioJobRequestDTO(
+        String formato,
+        RelatorioFiltroDTO filtro
+) {}
@@ -0,0 +1,19 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Receita mensal contratada (soma de Modalidade.valor) de clientes ativos, exata em BigDecimal
+public record RelatorioReceitaDTO(
+        BigDecimal total,
+        long assinaturas,
+        List<Linha> porModalidade,
+        List<Linha> porUf,
+        List<Linha> porFaixaEtaria,
+        List<Celula> modalidadePorUf
+) {
+    // assinaturas = pares cliente x modalidade
+    public record Linha(String chave, String rotulo, long assinaturas, BigDecimal receita) {}
+
+    public record Celula(Long modalidadeId, String modalidade, String uf, long assinaturas, BigDecimal receita) {}
+}
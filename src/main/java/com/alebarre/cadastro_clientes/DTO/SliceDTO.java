@@ -0,0 +1,14 @@
+package com.alebarre.cadastro_clientes.DTO;
+
+import java.time.Instant;
+import java.util.List;
+
+// Página sem COUNT: só "hasNext". O total, quando pedido, vem de cache e é aproximado.
+public record SliceDTO<T>(
+        List<T> content,
+        int page,
+        int size,
+        boolean hasNext,
+        Long totalAproximado,
+        Instant totalCalculadoEm
+) {}
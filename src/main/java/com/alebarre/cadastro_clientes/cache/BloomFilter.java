@@ -0,0 +1,92 @@
+package com.alebarre.cadastro_clientes.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter de strings, sem lock (bits em AtomicLongArray). "Não contém" é definitivo;
+ * "talvez contenha" erra com a probabilidade configurada enquanto o número de inserções
+ * não passar da capacidade prevista.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+    private final long capacidade;
+    private final LongAdder insercoes = new LongAdder();
+
+    public BloomFilter(long capacidade, double fpp) {
+        if (capacidade <= 0 || fpp <= 0 || fpp >= 1)
+            throw new IllegalArgumentException("Capacidade > 0 e 0 < fpp < 1");
+        long m = (long) Math.ceil(-capacidade * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(64, ((m + 63) / 64) * 64);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacidade * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (numBits / 64));
+        this.capacidade = capacidade;
+    }
+
+    public void put(String valor) {
+        long h1 = hash(valor), h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int idx = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long cur;
+            do {
+                cur = bits.get(idx);
+                if ((cur & mask) != 0) break;
+            } while (!bits.compareAndSet(idx, cur, cur | mask));
+        }
+        insercoes.increment();
+    }
+
+    public boolean mightContain(String valor) {
+        long h1 = hash(valor), h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public long capacidade() { return capacidade; }
+
+    public long insercoes() { return insercoes.sum(); }
+
+    public long numBits() { return numBits; }
+
+    public int numHashes() { return numHashes; }
+
+    /** Fração de bits ligados (saturação). */
+    public double saturacao() {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) set += Long.bitCount(bits.get(i));
+        return (double) set / numBits;
+    }
+
+    /** Taxa de falso positivo esperada com a saturação atual. */
+    public double fppEstimada() {
+        return Math.pow(saturacao(), numHashes);
+    }
+
+    // FNV-1a 64 sobre UTF-8 + finalizador do MurmurHash3
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb1a5b4a2e69bL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,124 @@
+package com.alebarre.cadastro_clientes.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache LRU limitado por tamanho, com TTL opcional e contadores de hit/miss/evicção.
+ * Leituras "read-through" que correm junto com uma invalidação não repovoam o cache com valor velho.
+ */
+public class BoundedCache<K, V> {
+
+    private record Item<V>(V value, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Item<V>> map;
+    private long epoch; // incrementa a cada invalidação
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /** @param ttl null ou zero = sem expiração por tempo */
+    public BoundedCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMillis = (ttl == null) ? 0 : ttl.toMillis();
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Item<V>> eldest) {
+                boolean remove = size() > BoundedCache.this.maxSize;
+                if (remove) evictions.increment();
+                return remove;
+            }
+        };
+    }
+
+    public synchronized V getIfPresent(K key) {
+        V v = lookup(key);
+        if (v != null) hits.increment(); else misses.increment();
+        return v;
+    }
+
+    /** Devolve do cache ou carrega com {@code loader} (fora do lock); null não é cacheado. */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return get(key, loader, v -> true);
+    }
+
+    /** Como {@link #get(Object, Function)}, mas só guarda o valor carregado se {@code cacheavel} aceitar. */
+    public V get(K key, Function<? super K, ? extends V> loader, Predicate<? super V> cacheavel) {
+        long e;
+        synchronized (this) {
+            V v = lookup(key);
+            if (v != null) { hits.increment(); return v; }
+            misses.increment();
+            e = epoch;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null && cacheavel.test(loaded)) {
+            synchronized (this) {
+                if (epoch == e) map.put(key, new Item<>(loaded, expiry()));
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, new Item<>(value, expiry()));
+    }
+
+    /** Expiração própria da entrada (ex.: "exp" de um token), limitada pelo TTL do cache se houver. */
+    public synchronized void put(K key, V value, long expiresAtMillis) {
+        long exp = ttlMillis > 0 ? Math.min(expiresAtMillis, expiry()) : expiresAtMillis;
+        map.put(key, new Item<>(value, exp));
+    }
+
+    public synchronized void invalidate(K key) {
+        if (map.remove(key) != null) invalidations.increment();
+        epoch++;
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations.add(map.size());
+        map.clear();
+        epoch++;
+    }
+
+    public synchronized int size() { return map.size(); }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum(), m = misses.sum();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("tamanho", size());
+        s.put("maximo", maxSize);
+        s.put("hits", h);
+        s.put("misses", m);
+        s.put("hitRate", (h + m) == 0 ? 0.0 : (double) h / (h + m));
+        s.put("evictions", evictions.sum());
+        s.put("expiracoes", expirations.sum());
+        s.put("invalidacoes", invalidations.sum());
+        return s;
+    }
+
+    // chamado com o lock
+    private V lookup(K key) {
+        Item<V> en = map.get(key);
+        if (en == null) return null;
+        if (en.expiresAt() > 0 && en.expiresAt() <= System.currentTimeMillis()) {
+            map.remove(key);
+            expirations.increment();
+            return null;
+        }
+        return en.value();
+    }
+
+    private long expiry() {
+        return ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.alebarre.cadastro_clientes.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache para consultas por requisição (filtro JWT): ConcurrentHashMap sem lock global, leitura não
+ * altera nada. O limite de tamanho é aproximado: ao passar de {@code maxSize}, uma única thread remove
+ * primeiro os expirados e depois entradas quaisquer até 90% do limite (sem ordem LRU).
+ */
+public class ConcurrentBoundedCache<K, V> {
+
+    private record Item<V>(V value, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<K, Item<V>> map = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong(); // incrementa a cada invalidação
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /** @param ttl null ou zero = sem expiração por tempo */
+    public ConcurrentBoundedCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMillis = (ttl == null) ? 0 : ttl.toMillis();
+    }
+
+    public V getIfPresent(K key) {
+        V v = lookup(key);
+        if (v != null) hits.increment(); else misses.increment();
+        return v;
+    }
+
+    /** Devolve do cache ou carrega com {@code loader}; null não é cacheado. */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V v = lookup(key);
+        if (v != null) { hits.increment(); return v; }
+        misses.increment();
+        long e = epoch.get();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            Item<V> item = new Item<>(loaded, expiry());
+            map.put(key, item);
+            // invalidação durante a carga: o valor pode ser velho, não fica
+            if (epoch.get() != e) map.remove(key, item);
+            else evictIfNeeded();
+        }
+        return loaded;
+    }
+
+    /** Expiração própria da entrada (ex.: "exp" de um token), limitada pelo TTL do cache se houver. */
+    public void put(K key, V value, long expiresAtMillis) {
+        long exp = ttlMillis > 0 ? Math.min(expiresAtMillis, expiry()) : expiresAtMillis;
+        map.put(key, new Item<>(value, exp));
+        evictIfNeeded();
+    }
+
+    public void invalidate(K key) {
+        epoch.incrementAndGet();
+        if (map.remove(key) != null) invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        invalidations.add(map.size());
+        map.clear();
+    }
+
+    public int size() { return map.size(); }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum(), m = misses.sum();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("tamanho", size());
+        s.put("maximo", maxSize);
+        s.put("hits", h);
+        s.put("misses", m);
+        s.put("hitRate", (h + m) == 0 ? 0.0 : (double) h / (h + m));
+        s.put("evictions", evictions.sum());
+        s.put("expiracoes", expirations.sum());
+        s.put("invalidacoes", invalidations.sum());
+        return s;
+    }
+
+    private V lookup(K key) {
+        Item<V> en = map.get(key);
+        if (en == null) return null;
+        if (en.expiresAt() > 0 && en.expiresAt() <= System.currentTimeMillis()) {
+            if (map.remove(key, en)) expirations.increment();
+            return null;
+        }
+        return en.value();
+    }
+
+    private void evictIfNeeded() {
+        if (map.size() <= maxSize || !evicting.compareAndSet(false, true)) return;
+        try {
+            long agora = System.currentTimeMillis();
+            map.entrySet().removeIf(en -> {
+                long exp = en.getValue().expiresAt();
+                boolean vencido = exp > 0 && exp <= agora;
+                if (vencido) expirations.increment();
+                return vencido;
+            });
+            int alvo = (int) (maxSize * 0.9);
+            Iterator<K> it = map.keySet().iterator();
+            while (map.size() > alvo && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private long expiry() {
+        return ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.alebarre.cadastro_clientes.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** Valor + ETag forte derivado do conteúdo (muda sempre que qualquer campo do DTO muda). */
+public record Versionado<T>(T valor, String etag) {
+
+    public static <T> Versionado<T> of(T valor) {
+        return new Versionado<>(valor, etagDe(valor));
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals("*") || t.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static String etagDe(Object valor) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256")
+                    .digest(String.valueOf(valor).getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(d, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
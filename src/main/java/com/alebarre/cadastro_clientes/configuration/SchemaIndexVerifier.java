@@ -0,0 +1,74 @@
+package com.alebarre.cadastro_clientes.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Confere no startup se os índices que as consultas quentes esperam existem (por colunas, não por
+ * nome — bancos vindos do ddl-auto têm nomes gerados). Se faltar algum, a aplicação não sobe.
+ */
+@Component
+@Order(0)
+public class SchemaIndexVerifier implements ApplicationRunner {
+
+    // tabela -> prefixos de colunas que algum índice precisa cobrir
+    static final Map<String, List<List<String>>> ESPERADOS = Map.of(
+            "cliente", List.of(List.of("nome", "id"), List.of("data_nascimento", "id"), List.of("email"),
+                    List.of("aniversario_md", "id")),
+            "endereco", List.of(List.of("cliente_id"), List.of("uf", "cidade", "cliente_id")),
+            "cliente_modalidade", List.of(List.of("cliente_id", "modalidade_id"), List.of("modalidade_id", "cliente_id")),
+            "refresh_token", List.of(List.of("token"), List.of("username")),
+            "verification_token", List.of(List.of("email", "used", "id")),
+            "password_reset_token", List.of(List.of("email", "used", "id")),
+            "password_history", List.of(List.of("username", "created_at")),
+            "app_user", List.of(List.of("username")),
+            "cliente_estatistica", List.of(List.of("dimensao", "chave"))
+    );
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+
+    public SchemaIndexVerifier(JdbcTemplate jdbc, @Value("${app.schema.verify-indexes:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+
+        // tabela -> índice -> colunas na ordem do índice
+        Map<String, Map<String, List<String>>> existentes = new HashMap<>();
+        jdbc.query("""
+                SELECT table_name, index_name, column_name
+                  FROM information_schema.statistics
+                 WHERE table_schema = DATABASE()
+                 ORDER BY table_name, index_name, seq_in_index
+                """, rs -> {
+            existentes.computeIfAbsent(rs.getString(1).toLowerCase(Locale.ROOT), t -> new HashMap<>())
+                    .computeIfAbsent(rs.getString(2), i -> new ArrayList<>())
+                    .add(rs.getString(3).toLowerCase(Locale.ROOT));
+        });
+
+        List<String> faltando = new ArrayList<>();
+        ESPERADOS.forEach((tabela, prefixos) -> {
+            Collection<List<String>> indices = existentes.getOrDefault(tabela, Map.of()).values();
+            for (List<String> prefixo : prefixos) {
+                boolean coberto = indices.stream()
+                        .anyMatch(cols -> cols.size() >= prefixo.size() && cols.subList(0, prefixo.size()).equals(prefixo));
+                if (!coberto) faltando.add(tabela + "(" + String.join(", ", prefixo) + ")");
+            }
+        });
+
+        if (!faltando.isEmpty()) {
+            throw new IllegalStateException("Índices esperados ausentes no banco: " + faltando
+                    + ". Rode as migrations (Flyway) ou desative app.schema.verify-indexes.");
+        }
+    }
+}
@@ -5,9 +5,11 @@ import com.alebarre.cadastro_clientes.DTO.AuthRequestDTO;
 import com.alebarre.cadastro_clientes.DTO.AuthResponseDTO;
 import com.alebarre.cadastro_clientes.DTO.RefreshRequestDTO;
 import com.alebarre.cadastro_clientes.DTO.RefreshResponseDTO;
-import com.alebarre.cadastro_clientes.exception.TooManyLoginAttemptsException;
+import com.alebarre.cadastro_clientes.exception.ServicoSobrecarregadoException;
 import com.alebarre.cadastro_clientes.security.JWTService;
+import com.alebarre.cadastro_clientes.security.LoginRateLimiter;
 import com.alebarre.cadastro_clientes.service.RefreshTokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -29,14 +31,19 @@ public class AuthController {
     private final UserDetailsService uds;
     private final JWTService jwt;
     private final RefreshTokenService rts;
-    private int attemptsCount = 0;
+    private final LoginRateLimiter limiter;
 
-    public AuthController(AuthenticationManager am, UserDetailsService uds, JWTService jwt, RefreshTokenService rts) {
-        this.authManager = am; this.uds = uds; this.jwt = jwt; this.rts = rts;
+    public AuthController(AuthenticationManager am, UserDetailsService uds, JWTService jwt, RefreshTokenService rts,
+                          LoginRateLimiter limiter) {
+        this.authManager = am; this.uds = uds; this.jwt = jwt; this.rts = rts; this.limiter = limiter;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequestDTO req) {
+    public ResponseEntity<?> login(@RequestBody AuthRequestDTO req, HttpServletRequest http) {
+        // reserva a tentativa por usuário e por IP antes do BCrypt (429 com Retry-After);
+        // atrás de proxy o IP vem do X-Forwarded-For (server.forward-headers-strategy)
+        String ip = http.getRemoteAddr();
+        limiter.reservar(req.username(), ip);
         try {
             // Autentica e usa o principal retornado pelo provider (respeita enabled/locked/expired)
             Authentication auth = authManager.authenticate(
@@ -52,15 +59,13 @@ public class AuthController {
             long expiresIn = jwt.getExpirationSeconds();
             var rt = rts.issue(user.getUsername());
 
-            attemptsCount = 0; // zera contador em sucesso
+            limiter.sucesso(req.username(), ip); // zera as falhas do usuário e devolve a ficha do IP
             return ResponseEntity.ok(new AuthResponseDTO(
                     rt.getToken(), access, expiresIn, user.getUsername()
             ));
 
         }  catch (BadCredentialsException e) {
             // Credenciais inválidas → 401
-            attemptsCount++;
-            if (attemptsCount >= 10) { attemptsCount = 0; throw new TooManyLoginAttemptsException(60); }
 
             var pd = ProblemDetail.forStatus(HttpStatus.UNAUTHORIZED);
             pd.setTitle("Unauthorized");
@@ -71,8 +76,6 @@ public class AuthController {
 
         } catch (DisabledException e) {
             // Conta desabilitada → 403
-            attemptsCount++;
-            if (attemptsCount >= 10) { attemptsCount = 0; throw new TooManyLoginAttemptsException(60); }
 
             var pd = ProblemDetail.forStatus(HttpStatus.FORBIDDEN);
             pd.setTitle("Conta inativa");
@@ -83,8 +86,6 @@ public class AuthController {
 
         } catch (AccountStatusException e) {
             // Outras irregularidades de conta (locked/expired/credentialsExpired) → 403
-            attemptsCount++;
-            if (attemptsCount >= 10) { attemptsCount = 0; throw new TooManyLoginAttemptsException(60); }
 
             var pd = ProblemDetail.forStatus(HttpStatus.FORBIDDEN);
             pd.setTitle("Conta com restrições");
@@ -92,6 +93,11 @@ public class AuthController {
             pd.setProperty("path", "/api/auth/login");
             pd.setProperty("timestamp", Instant.now().toString());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(pd);
+
+        } catch (ServicoSobrecarregadoException e) {
+            // senha nem chegou a ser checada: não conta como tentativa
+            limiter.devolver(req.username(), ip);
+            throw e;
         }
     }
 
@@ -1,24 +1,54 @@
 package com.alebarre.cadastro_clientes.controller;
 
+import com.alebarre.cadastro_clientes.DTO.ClienteCardDTO;
+import com.alebarre.cadastro_clientes.DTO.ClienteLoteRequestDTO;
+import com.alebarre.cadastro_clientes.DTO.ClienteLoteResultadoDTO;
 import com.alebarre.cadastro_clientes.DTO.ClienteRequestDTO;
 import com.alebarre.cadastro_clientes.DTO.ClienteResponseDTO;
 import com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO;
+import com.alebarre.cadastro_clientes.DTO.CursorPageDTO;
+import com.alebarre.cadastro_clientes.DTO.SliceDTO;
+import com.alebarre.cadastro_clientes.cache.Versionado;
+import com.alebarre.cadastro_clientes.security.ConsultaEmailRateLimiter;
+import com.alebarre.cadastro_clientes.service.ClienteExportService;
+import com.alebarre.cadastro_clientes.service.ClienteImportService;
+import com.alebarre.cadastro_clientes.service.ClienteLoteService;
 import com.alebarre.cadastro_clientes.service.ClienteService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/clientes")
 public class ClienteController {
 
     private final ClienteService service;
-    public ClienteController(ClienteService service) { this.service = service; }
+    private final ClienteExportService exportService;
+    private final ClienteImportService importService;
+    private final ClienteLoteService loteService;
+    private final ConsultaEmailRateLimiter emailLimiter;
+
+    public ClienteController(ClienteService service, ClienteExportService exportService,
+                             ClienteImportService importService, ClienteLoteService loteService,
+                             ConsultaEmailRateLimiter emailLimiter) {
+        this.service = service;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.loteService = loteService;
+        this.emailLimiter = emailLimiter;
+    }
 
     @GetMapping
     public Page<ClienteSummaryDTO> listPaged(
@@ -31,11 +61,87 @@ public class ClienteController {
         return service.listPaged(page, size, sort, dir, q);
     }
 
+    // ?mode=slice: sem COUNT; &total=true acrescenta o total aproximado (cacheado)
+    @GetMapping(params = "mode=slice")
+    public SliceDTO<ClienteSummaryDTO> listSlice(
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false, defaultValue = "nome") String sort,
+            @RequestParam(value = "dir",  required = false, defaultValue = "asc") String dir,
+            @RequestParam(value = "q",    required = false) String q,
+            @RequestParam(value = "total", required = false, defaultValue = "false") boolean total
+    ) {
+        return service.listSlice(page, size, sort, dir, q, total);
+    }
+
+    // ?mode=cursor: paginação keyset (after/before), sem OFFSET nem COUNT
+    @GetMapping(params = "mode=cursor")
+    public CursorPageDTO<ClienteSummaryDTO> listCursor(
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false, defaultValue = "nome") String sort,
+            @RequestParam(value = "dir",  required = false, defaultValue = "asc") String dir,
+            @RequestParam(value = "q",    required = false) String q,
+            @RequestParam(value = "after",  required = false) String after,
+            @RequestParam(value = "before", required = false) String before
+    ) {
+        return service.listCursor(size, sort, dir, q, after, before);
+    }
+
+    // exporta todos os clientes em streaming (?formato=csv|ndjson)
+    @GetMapping("/export")
+    public void exportar(@RequestParam(value = "formato", defaultValue = "csv") String formato,
+                         HttpServletResponse res) throws IOException {
+        String f = formato.toLowerCase(Locale.ROOT);
+        if (!ClienteExportService.FORMATOS.contains(f))
+            throw new IllegalArgumentException("Formato inválido: use csv ou ndjson");
+        res.setContentType("csv".equals(f) ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        res.setHeader("Content-Disposition", "attachment; filename=clientes." + f);
+        exportService.exportar(f, res.getOutputStream());
+    }
+
+    // importação em lote (corpo CSV ou NDJSON); devolve um CSV com o resultado de cada linha
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public void importar(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        String f = req.getContentType() != null && req.getContentType().startsWith("text/csv") ? "csv" : "ndjson";
+        res.setContentType("text/csv;charset=UTF-8");
+        res.setHeader("Content-Disposition", "attachment; filename=importacao-resultado.csv");
+        importService.importar(f, req.getInputStream(), res.getOutputStream());
+    }
+
+    // operações em lote por ids ou pelo filtro do relatório; devolve as quantidades afetadas
+    @PostMapping("/lote")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ClienteLoteResultadoDTO lote(@RequestBody @Valid ClienteLoteRequestDTO req) {
+        return loteService.executar(req);
+    }
+
     @GetMapping("/{id}")
-    public ClienteResponseDTO get(@PathVariable Long id) { return service.find(id); }
+    public ResponseEntity<ClienteResponseDTO> get(@PathVariable Long id,
+                                                  @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return comEtag(service.findVersionado(id), ifNoneMatch);
+    }
 
+    @GetMapping("/{id}/card")
+    public ResponseEntity<ClienteCardDTO> card(@PathVariable Long id,
+                                               @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return comEtag(service.obterCardVersionado(id), ifNoneMatch);
+    }
+
+    // público (tela de cadastro): limitado por IP
     @GetMapping("/email/{email}")
-    public Boolean getByMail(@PathVariable String email) { return service.getByEmail(email); }
+    public Boolean getByMail(@PathVariable String email, HttpServletRequest req) {
+        emailLimiter.reservar(req.getRemoteAddr());
+        return service.getByEmail(email);
+    }
+
+    // várias verificações numa chamada (máx. 100 e-mails); exige autenticação
+    @PostMapping("/email/verificar")
+    public Map<String, Boolean> verificarEmails(@RequestBody List<String> emails) {
+        if (emails == null || emails.isEmpty() || emails.size() > 100)
+            throw new IllegalArgumentException("Informe de 1 a 100 e-mails");
+        return service.verificarEmails(emails);
+    }
 
     @PostMapping
     public ResponseEntity<ClienteResponseDTO> create(@RequestBody @Valid ClienteRequestDTO req) {
@@ -55,4 +161,12 @@ public class ClienteController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // 304 quando o If-None-Match bate; no-cache força o navegador a revalidar sempre
+    private static <T> ResponseEntity<T> comEtag(Versionado<T> v, String ifNoneMatch) {
+        if (v.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(v.etag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(v.etag()).cacheControl(CacheControl.noCache()).body(v.valor());
+    }
 }
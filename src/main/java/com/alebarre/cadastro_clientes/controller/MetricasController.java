@@ -0,0 +1,28 @@
+package com.alebarre.cadastro_clientes.controller;
+
+import com.alebarre.cadastro_clientes.service.MetricasProvider;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/admin/metricas")
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricasController {
+
+    private final List<MetricasProvider> providers;
+
+    public MetricasController(List<MetricasProvider> providers) { this.providers = providers; }
+
+    @GetMapping
+    public Map<String, Map<String, Object>> metricas() {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        providers.forEach(p -> out.put(p.nomeMetricas(), p.metricas()));
+        return out;
+    }
+}
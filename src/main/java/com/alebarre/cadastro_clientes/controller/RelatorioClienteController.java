@@ -1,17 +1,35 @@
 package com.alebarre.cadastro_clientes.controller;
 
+import com.alebarre.cadastro_clientes.DTO.AniversarianteDTO;
+import com.alebarre.cadastro_clientes.DTO.ClienteEstatisticasDTO;
 import com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO;
+import com.alebarre.cadastro_clientes.DTO.CursorPageDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioAgregadosDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioGeografiaDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioReceitaDTO;
+import com.alebarre.cadastro_clientes.service.ClienteEstatisticasService;
+import com.alebarre.cadastro_clientes.service.RelatorioAgregadosService;
 import com.alebarre.cadastro_clientes.service.RelatorioClienteService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/relatorios")
 public class RelatorioClienteController {
     private final RelatorioClienteService service;
+    private final RelatorioAgregadosService agregadosService;
+    private final ClienteEstatisticasService estatisticasService;
 
-    public RelatorioClienteController(RelatorioClienteService service) { this.service = service; }
+    public RelatorioClienteController(RelatorioClienteService service, RelatorioAgregadosService agregadosService,
+                                      ClienteEstatisticasService estatisticasService) {
+        this.service = service;
+        this.agregadosService = agregadosService;
+        this.estatisticasService = estatisticasService;
+    }
 
     @GetMapping("/clientes")
     public List<ClienteSummaryDTO> relatorioClientes(
@@ -19,9 +37,110 @@ public class RelatorioClienteController {
             @RequestParam(required = false) Boolean inativos,
             @RequestParam(required = false) Integer idadeMin,
             @RequestParam(required = false) Integer idadeMax,
-            @RequestParam(required = false) List<Long> modalidades // ?modalidades=1,2,3
+            @RequestParam(required = false) List<Long> modalidades, // ?modalidades=1,2,3
+            @RequestParam(required = false, defaultValue = "any") String match, // any | all | none
+            @RequestParam(required = false) String filtro // ex.: enabled==true;idade=ge=18;modalidade=in=(1,3);uf==SP
     ) {
-        return service.buscar(ativos, inativos, idadeMin, idadeMax, modalidades);
+        return service.buscar(ativos, inativos, idadeMin, idadeMax, modalidades, match, filtro);
+    }
+
+    // ?mode=cursor: mesma consulta, paginada por id (token "next" -> ?after=)
+    @GetMapping(value = "/clientes", params = "mode=cursor")
+    public CursorPageDTO<ClienteSummaryDTO> relatorioClientesPaginado(
+            @RequestParam(required = false) Boolean ativos,
+            @RequestParam(required = false) Boolean inativos,
+            @RequestParam(required = false) Integer idadeMin,
+            @RequestParam(required = false) Integer idadeMax,
+            @RequestParam(required = false) List<Long> modalidades,
+            @RequestParam(required = false, defaultValue = "any") String match,
+            @RequestParam(required = false) String filtro,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after
+    ) {
+        return service.buscarPagina(ativos, inativos, idadeMin, idadeMax, modalidades, match, filtro, size, after);
+    }
+
+    // relatório completo em streaming (?formato=csv|ndjson)
+    @GetMapping("/clientes/export")
+    public void exportarClientes(
+            @RequestParam(required = false) Boolean ativos,
+            @RequestParam(required = false) Boolean inativos,
+            @RequestParam(required = false) Integer idadeMin,
+            @RequestParam(required = false) Integer idadeMax,
+            @RequestParam(required = false) List<Long> modalidades,
+            @RequestParam(required = false, defaultValue = "any") String match,
+            @RequestParam(required = false) String filtro,
+            @RequestParam(defaultValue = "csv") String formato,
+            HttpServletResponse res
+    ) throws IOException {
+        String f = formato.toLowerCase(Locale.ROOT);
+        if (!RelatorioClienteService.FORMATOS.contains(f))
+            throw new IllegalArgumentException("Formato inválido: use csv ou ndjson");
+        res.setContentType("csv".equals(f) ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        res.setHeader("Content-Disposition", "attachment; filename=relatorio-clientes." + f);
+        service.exportar(ativos, inativos, idadeMin, idadeMax, modalidades, match, filtro, f, res.getOutputStream());
     }
-}
 
+    // contagens por status, faixa etária (?faixas=0-17,18-29,60-), modalidade e UF
+    @GetMapping("/clientes/agregados")
+    public RelatorioAgregadosDTO agregados(
+            @RequestParam(required = false) Boolean ativos,
+            @RequestParam(required = false) Boolean inativos,
+            @RequestParam(required = false) Integer idadeMin,
+            @RequestParam(required = false) Integer idadeMax,
+            @RequestParam(required = false) List<Long> modalidades,
+            @RequestParam(required = false, defaultValue = "any") String match,
+            @RequestParam(required = false) String filtro,
+            @RequestParam(required = false) String faixas
+    ) {
+        return agregadosService.agregados(ativos, inativos, idadeMin, idadeMax, modalidades, match, filtro, faixas);
+    }
+
+    // receita mensal contratada (clientes ativos) por modalidade, UF principal e faixa etária
+    @GetMapping("/clientes/receita")
+    public RelatorioReceitaDTO receita(
+            @RequestParam(required = false) Integer idadeMin,
+            @RequestParam(required = false) Integer idadeMax,
+            @RequestParam(required = false) List<Long> modalidades,
+            @RequestParam(required = false, defaultValue = "any") String match,
+            @RequestParam(required = false) String filtro,
+            @RequestParam(required = false) String faixas
+    ) {
+        return agregadosService.receita(idadeMin, idadeMax, modalidades, match, filtro, faixas);
+    }
+
+    // clientes por UF e top N cidades (?top=5) de cada UF
+    @GetMapping("/clientes/geografia")
+    public RelatorioGeografiaDTO geografia(
+            @RequestParam(required = false) Boolean ativos,
+            @RequestParam(required = false) Boolean inativos,
+            @RequestParam(required = false) List<Long> modalidades,
+            @RequestParam(required = false, defaultValue = "any") String match,
+            @RequestParam(required = false) String filtro,
+            @RequestParam(required = false) Integer top
+    ) {
+        return agregadosService.geografia(ativos, inativos, modalidades, match, filtro, top);
+    }
+
+    // totais gerais do dashboard, mantidos incrementalmente (sem filtros)
+    @GetMapping("/clientes/estatisticas")
+    public ClienteEstatisticasDTO estatisticas() {
+        return estatisticasService.ler();
+    }
+
+    // força a recontagem completa; devolve quantas chaves foram corrigidas
+    @PostMapping("/clientes/estatisticas/reconciliar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Integer> reconciliar() {
+        return Map.of("chavesCorrigidas", estatisticasService.reconciliar());
+    }
+
+    // aniversariantes de hoje até hoje + dias (0..366), em ordem de data
+    @GetMapping("/clientes/aniversariantes")
+    public List<AniversarianteDTO> aniversariantes(
+            @RequestParam(required = false, defaultValue = "7") Integer dias,
+            @RequestParam(required = false) Integer limite
+    ) {
+        return service.aniversariantes(dias, limite);
+    }
+}
@@ -0,0 +1,105 @@
+package com.alebarre.cadastro_clientes.controller;
+
+import com.alebarre.cadastro_clientes.DTO.RelatorioJobDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioJobRequestDTO;
+import com.alebarre.cadastro_clientes.service.RelatorioJobService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+@RestController
+@RequestMapping("/api/relatorios/clientes/jobs")
+public class RelatorioJobController {
+    private final RelatorioJobService service;
+
+    public RelatorioJobController(RelatorioJobService service) { this.service = service; }
+
+    // enfileira a geração; acompanhar por GET /{id} e baixar por GET /{id}/arquivo
+    @PostMapping
+    public ResponseEntity<RelatorioJobDTO> criar(@RequestBody RelatorioJobRequestDTO req, Authentication auth) {
+        var job = service.criar(req, auth.getName());
+        return ResponseEntity.accepted().location(URI.create("/api/relatorios/clientes/jobs/" + job.id())).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public RelatorioJobDTO status(@PathVariable String id, Authentication auth) {
+        return service.status(id, auth.getName(), isAdmin(auth));
+    }
+
+    // suporta um único intervalo "Range: bytes=a-b" (206); sem Range ou com vários intervalos, arquivo inteiro.
+    // Job ainda não concluído responde 409; o status fica em GET /{id}
+    @GetMapping("/{id}/arquivo")
+    public void download(@PathVariable String id,
+                         @RequestHeader(value = "Range", required = false) String range,
+                         Authentication auth, HttpServletResponse res) throws IOException {
+        var arq = service.arquivo(id, auth.getName(), isAdmin(auth));
+        long tamanho = arq.tamanho();
+        long inicio = 0, fim = tamanho - 1;
+
+        res.setHeader("Accept-Ranges", "bytes");
+        res.setHeader("Content-Disposition", "attachment; filename=" + arq.nome());
+        res.setContentType(arq.contentType());
+
+        if (range != null && range.startsWith("bytes=") && !range.contains(",")) {
+            long[] r = intervalo(range.substring(6).trim(), tamanho);
+            if (r == null) {
+                res.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                res.setHeader("Content-Range", "bytes */" + tamanho);
+                return;
+            }
+            inicio = r[0];
+            fim = r[1];
+            res.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            res.setHeader("Content-Range", "bytes " + inicio + "-" + fim + "/" + tamanho);
+        }
+        long restante = fim - inicio + 1;
+        res.setContentLengthLong(restante);
+
+        // transferTo evita cópia para o heap quando o container expõe um canal nativo; senão, cai numa cópia em blocos
+        try (FileChannel ch = FileChannel.open(arq.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(res.getOutputStream());
+            long pos = inicio;
+            while (restante > 0) {
+                long n = ch.transferTo(pos, restante, out);
+                if (n <= 0) break;
+                pos += n;
+                restante -= n;
+            }
+        }
+    }
+
+    // "a-b", "a-" ou "-n" (últimos n bytes); null = fora do arquivo
+    private static long[] intervalo(String spec, long tamanho) {
+        try {
+            int i = spec.indexOf('-');
+            if (i < 0 || tamanho == 0) return null;
+            String a = spec.substring(0, i).trim(), b = spec.substring(i + 1).trim();
+            long inicio, fim;
+            if (a.isEmpty()) {
+                long n = Long.parseLong(b);
+                if (n <= 0) return null;
+                inicio = Math.max(0, tamanho - n);
+                fim = tamanho - 1;
+            } else {
+                inicio = Long.parseLong(a);
+                fim = b.isEmpty() ? tamanho - 1 : Math.min(Long.parseLong(b), tamanho - 1);
+            }
+            return (inicio < 0 || inicio > fim) ? null : new long[]{inicio, fim};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isAdmin(Authentication auth) {
+        return auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+}
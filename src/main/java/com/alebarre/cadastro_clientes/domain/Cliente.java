@@ -2,6 +2,7 @@ package com.alebarre.cadastro_clientes.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -32,10 +33,15 @@ public class Cliente {
     @Past(message = "Data de nascimento deve estar no passado")
     private LocalDate dataNascimento;
 
-    @Column(unique = true)
+    // MMDD derivado de dataNascimento (indexado, p/ aniversariantes); não setar direto
+    @Setter(AccessLevel.NONE)
+    @Column(name = "aniversario_md")
+    private Integer aniversarioMd;
+
     private boolean enabled;
 
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id") // ordem estável: o resumo de cidades (fromEntity e projeção) usa os primeiros endereços
     private List<Endereco> enderecos = new ArrayList<>();
 
     @ManyToMany
@@ -53,6 +59,13 @@ public class Cliente {
         }
     }
 
+    @PrePersist
+    @PreUpdate
+    void atualizarAniversario() {
+        this.aniversarioMd = dataNascimento == null ? null
+                : dataNascimento.getMonthValue() * 100 + dataNascimento.getDayOfMonth();
+    }
+
     public void addEndereco(Endereco e) {
         e.setCliente(this);
         this.enderecos.add(e);
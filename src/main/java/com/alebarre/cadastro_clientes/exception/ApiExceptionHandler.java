@@ -72,6 +72,36 @@ public class ApiExceptionHandler {
                 .body(body);
     }
 
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<Problem> limiteExcedido(LimiteExcedidoException ex) {
+        var body = new Problem(429, "Too Many Requests", ex.getMessage(), Instant.now(), null);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    @ExceptionHandler(ConflitoException.class)
+    public ResponseEntity<Problem> conflito(ConflitoException ex) {
+        var body = new Problem(409, "Conflict", ex.getMessage(), Instant.now(), null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<Problem> sobrecarregado(ServicoSobrecarregadoException ex) {
+        var body = new Problem(503, "Service Unavailable", ex.getMessage(), Instant.now(), null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    // consulta de relatório que passou de app.relatorio.filtro.timeout
+    @ExceptionHandler({jakarta.persistence.QueryTimeoutException.class, org.springframework.dao.QueryTimeoutException.class})
+    public ResponseEntity<Problem> queryTimeout(RuntimeException ex) {
+        var body = new Problem(503, "Service Unavailable",
+                "Consulta excedeu o tempo limite. Refine o filtro.", Instant.now(), null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
     // (Opcional) catch-all para outras RuntimeException de validação sem field map
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Problem> illegalArg(IllegalArgumentException ex) {
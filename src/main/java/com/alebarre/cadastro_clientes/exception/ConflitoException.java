@@ -0,0 +1,8 @@
+package com.alebarre.cadastro_clientes.exception;
+
+// Recurso existe, mas o estado atual não permite a operação (ex.: baixar relatório ainda em execução): 409
+public class ConflitoException extends RuntimeException {
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.alebarre.cadastro_clientes.exception;
+
+import lombok.Getter;
+
+// Limite de requisições por cliente excedido: 429 com Retry-After
+@Getter
+public class LimiteExcedidoException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public LimiteExcedidoException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.alebarre.cadastro_clientes.exception;
+
+import lombok.Getter;
+
+// Fila/pool cheio: 503 com Retry-After
+@Getter
+public class ServicoSobrecarregadoException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public ServicoSobrecarregadoException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
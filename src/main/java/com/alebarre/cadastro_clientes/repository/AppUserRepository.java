@@ -1,8 +1,10 @@
 package com.alebarre.cadastro_clientes.repository;
 
 
+import com.alebarre.cadastro_clientes.DTO.AppUserStatusDTO;
 import com.alebarre.cadastro_clientes.domain.AppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,5 +15,8 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
     long countByRolesContaining(String fragment); // p/ checar “último admin”
+
+    @Query("select new com.alebarre.cadastro_clientes.DTO.AppUserStatusDTO(u.enabled, u.roles) from AppUser u where u.username = :username")
+    Optional<AppUserStatusDTO> findStatusByUsername(String username);
 }
 
@@ -1,18 +1,57 @@
 package com.alebarre.cadastro_clientes.repository;
 
+import com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO;
 import com.alebarre.cadastro_clientes.domain.Cliente;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente> {
 
+    // cidade do endereço de menor id do cliente (ignorando vazias)
+    String PRIMEIRA_CIDADE = """
+            (select e1.cidade from Endereco e1 where e1.id =
+                (select min(x.id) from Endereco x where x.cliente = c and trim(x.cidade) <> ''))""";
+
+    // Resumo montado no próprio SQL (até 2 cidades distintas em ordem de endereço, como o
+    // ClienteSummaryDTO.fromEntity, + COUNT de modalidades), sem tocar nas coleções lazy
+    String SUMMARY_SELECT = """
+            select new com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO(
+                c.id, c.nome, c.enabled, c.email, c.telefone,
+            """ + PRIMEIRA_CIDADE + """
+                ,
+                (select e2.cidade from Endereco e2 where e2.id =
+                    (select min(y.id) from Endereco y where y.cliente = c and trim(y.cidade) <> ''
+                        and y.cidade <> """ + PRIMEIRA_CIDADE + """
+                    )),
+                (select count(m) from Cliente c2 join c2.modalidades m where c2 = c),
+                c.dataNascimento)
+            from Cliente c
+            """;
+
+    String BUSCA_NOME_EMAIL = """
+            where lower(c.nome) like lower(concat('%', :q, '%'))
+               or lower(c.email) like lower(concat('%', :q, '%'))
+            """;
+
     Page<Cliente> findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(
             String nome, String email, Pageable pageable);
 
@@ -20,4 +59,91 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpec
 
     @EntityGraph(attributePaths = {"enderecos", "modalidades"})
     List<Cliente> findAll();
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(c) from Cliente c")
+    Page<ClienteSummaryDTO> findSummaryPage(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + BUSCA_NOME_EMAIL,
+            countQuery = "select count(c) from Cliente c " + BUSCA_NOME_EMAIL)
+    Page<ClienteSummaryDTO> searchSummaryPage(@Param("q") String q, Pageable pageable);
+
+    // Slice: busca size+1 linhas e não dispara COUNT
+    @Query(SUMMARY_SELECT)
+    Slice<ClienteSummaryDTO> findSummarySlice(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + BUSCA_NOME_EMAIL)
+    Slice<ClienteSummaryDTO> searchSummarySlice(@Param("q") String q, Pageable pageable);
+
+    @Query("select count(c) from Cliente c " + BUSCA_NOME_EMAIL)
+    long countBusca(@Param("q") String q);
+
+    @Query(SUMMARY_SELECT + "where c.id in :ids")
+    List<ClienteSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // importação: quais e-mails do bloco já existem (uma consulta por bloco)
+    @Query("select c.email from Cliente c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Integer.MIN_VALUE faz o Connector/J usar um result set forward-only, linha a linha (streaming)
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query(SUMMARY_SELECT + "order by c.id")
+    Stream<ClienteSummaryDTO> streamSummaries();
+
+    // carga do índice de busca em memória, em blocos por id (sem OFFSET)
+    @Query("select c.id, c.nome, c.email, c.dataNascimento from Cliente c where c.id > :afterId order by c.id")
+    List<Object[]> findIndexChunk(@Param("afterId") long afterId, Pageable pageable);
+
+    // aniversariantes por faixa de MMDD, na ordem do índice (aniversario_md, id)
+    @Query("""
+            select c.id, c.nome, c.email, c.telefone, c.enabled, c.dataNascimento from Cliente c
+            where c.aniversarioMd between :de and :ate
+            order by c.aniversarioMd, c.id
+            """)
+    List<Object[]> findAniversariantes(@Param("de") int de, @Param("ate") int ate, Pageable pageable);
+
+    // ===== Operações em lote (SQL por conjunto; chamadas com blocos de ids) =====
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Cliente c set c.enabled = :enabled where c.id in :ids and c.enabled <> :enabled")
+    int updateEnabled(@Param("ids") Collection<Long> ids, @Param("enabled") boolean enabled);
+
+    // respeita o limite de 5 modalidades por cliente e ignora quem já tem a modalidade
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            insert into cliente_modalidade (cliente_id, modalidade_id)
+            select c.id, :modalidadeId from cliente c
+            where c.id in :ids
+              and not exists (select 1 from cliente_modalidade cm
+                              where cm.cliente_id = c.id and cm.modalidade_id = :modalidadeId)
+              and (select count(*) from cliente_modalidade cm2 where cm2.cliente_id = c.id) < 5
+            """, nativeQuery = true)
+    int insertModalidade(@Param("ids") Collection<Long> ids, @Param("modalidadeId") Long modalidadeId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from cliente_modalidade where modalidade_id = :modalidadeId and cliente_id in :ids",
+            nativeQuery = true)
+    int deleteModalidade(@Param("ids") Collection<Long> ids, @Param("modalidadeId") Long modalidadeId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from cliente_modalidade where cliente_id in :ids", nativeQuery = true)
+    int deleteModalidadesDe(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from endereco where cliente_id in :ids", nativeQuery = true)
+    int deleteEnderecosDe(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from cliente where id in :ids", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /** Resumos dos ids informados, na mesma ordem da lista (uma única consulta). */
+    default List<ClienteSummaryDTO> findSummariesOrdered(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        Map<Long, ClienteSummaryDTO> byId = findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ClienteSummaryDTO::id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
 }
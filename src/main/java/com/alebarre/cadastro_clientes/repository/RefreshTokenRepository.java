@@ -2,10 +2,12 @@ package com.alebarre.cadastro_clientes.repository;
 import com.alebarre.cadastro_clientes.domain.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByTokenAndRevokedFalse(String token);
+    List<RefreshToken> findByUsernameAndRevokedFalse(String username);
 }
 
 
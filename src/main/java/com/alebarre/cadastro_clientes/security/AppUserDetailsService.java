@@ -1,38 +1,69 @@
 package com.alebarre.cadastro_clientes.security;
 
+import com.alebarre.cadastro_clientes.cache.BoundedCache;
 import com.alebarre.cadastro_clientes.repository.AppUserRepository;
+import com.alebarre.cadastro_clientes.service.AppUserAlteradoEvent;
+import com.alebarre.cadastro_clientes.service.MetricasProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * UserDetails com cache: guarda um retrato imutável do usuário (hash, roles já convertidas, enabled)
+ * e monta um User novo a cada chamada, porque o ProviderManager apaga a senha do principal após o login.
+ * Escritas no usuário publicam AppUserAlteradoEvent e derrubam a entrada; em outras instâncias a senha
+ * antiga ou a conta desativada valem no máximo pelo TTL, curto como o do UsuarioStatusCache.
+ */
 @Service
-public class AppUserDetailsService implements UserDetailsService {
+public class AppUserDetailsService implements UserDetailsService, MetricasProvider {
+
+    private record Retrato(String username, String password, List<SimpleGrantedAuthority> authorities, boolean enabled) {}
+
     private final AppUserRepository repo;
+    private final BoundedCache<String, Retrato> cache;
 
-    public AppUserDetailsService(AppUserRepository repo) { this.repo = repo; }
+    public AppUserDetailsService(AppUserRepository repo,
+                                 @Value("${app.security.user-details-cache.max-size:10000}") int maxSize,
+                                 @Value("${app.security.user-details-cache.ttl:PT30S}") Duration ttl) {
+        this.repo = repo;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var u = repo.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
-
-        var authorities = toAuthorities(u.getRoles());
+        Retrato u = cache.get(username, k -> repo.findByUsername(k)
+                .map(a -> new Retrato(a.getUsername(), a.getPassword(), toAuthorities(a.getRoles()), a.isEnabled()))
+                .orElse(null));
+        if (u == null) throw new UsernameNotFoundException("Usuário não encontrado");
 
         return org.springframework.security.core.userdetails.User
-                .withUsername(u.getUsername())
-                .password(u.getPassword())
-                .authorities(authorities)
-                .disabled(!u.isEnabled()) // reflete o enabled do banco
+                .withUsername(u.username())
+                .password(u.password())
+                .authorities(u.authorities())
+                .disabled(!u.enabled()) // reflete o enabled do banco
                 .accountExpired(false)
                 .accountLocked(false)
                 .credentialsExpired(false)
                 .build();
     }
 
-    private static List<SimpleGrantedAuthority> toAuthorities(String roles) {
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppUserAlterado(AppUserAlteradoEvent e) { cache.invalidate(e.username()); }
+
+    @Override
+    public String nomeMetricas() { return "userDetailsCache"; }
+
+    @Override
+    public Map<String, Object> metricas() { return cache.stats(); }
+
+    static List<SimpleGrantedAuthority> toAuthorities(String roles) {
         if (roles == null || roles.isBlank()) {
             return List.of(new SimpleGrantedAuthority("ROLE_USER"));
         }
@@ -45,5 +76,3 @@ public class AppUserDetailsService implements UserDetailsService {
                 .toList(); // se estiver em Java 11, troque por .collect(Collectors.toList())
     }
 }
-
-
@@ -0,0 +1,162 @@
+package com.alebarre.cadastro_clientes.security;
+
+import com.alebarre.cadastro_clientes.exception.ServicoSobrecarregadoException;
+import com.alebarre.cadastro_clientes.service.MetricasProvider;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordEncoder que roda encode/matches (BCrypt) num pool próprio e limitado. Um pico de logins
+ * ocupa só esses threads; os workers do Tomcat esperam na fila até {@code timeoutFila} e, com a fila
+ * cheia ou o tempo estourado, a requisição falha na hora com 503 (ServicoSobrecarregadoException).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MetricasProvider {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutFilaNanos;
+
+    private final Tempo fila = new Tempo();
+    private final Tempo hash = new Tempo();
+    private final LongAdder rejeitados = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int capacidadeFila, Duration timeoutFila) {
+        this.delegate = delegate;
+        this.timeoutFilaNanos = timeoutFila.toNanos();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword); // só olha o prefixo do hash
+    }
+
+    private <T> T executar(Callable<T> op) {
+        long enfileirado = System.nanoTime();
+        // quem "pega" primeiro decide: o pool começa o hash, ou quem espera desiste dele (timeout na fila)
+        AtomicBoolean tomado = new AtomicBoolean();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            if (!tomado.compareAndSet(false, true)) return null;
+            long inicio = System.nanoTime();
+            fila.registrar(inicio - enfileirado);
+            try {
+                return op.call();
+            } finally {
+                hash.registrar(System.nanoTime() - inicio);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            throw sobrecarregado();
+        }
+
+        boolean interrompido = false;
+        try {
+            try {
+                return task.get(timeoutFilaNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (tomado.compareAndSet(false, true)) {
+                    task.cancel(false);
+                    timeouts.increment();
+                    throw sobrecarregado();
+                }
+                // já começou: o hash termina em poucos ms, espera o resultado
+                while (true) {
+                    try {
+                        return task.get();
+                    } catch (InterruptedException ie) {
+                        interrompido = true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                interrompido = true;
+                tomado.compareAndSet(false, true);
+                task.cancel(false);
+                throw sobrecarregado();
+            }
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof RuntimeException re) throw re;
+            if (c instanceof Error er) throw er;
+            throw new IllegalStateException(c);
+        } finally {
+            if (interrompido) Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ServicoSobrecarregadoException sobrecarregado() {
+        return new ServicoSobrecarregadoException("Servidor ocupado processando senhas. Tente novamente em instantes.", 2);
+    }
+
+    @PreDestroy
+    void parar() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String nomeMetricas() { return "passwordHash"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("threads", executor.getMaximumPoolSize());
+        m.put("emExecucao", executor.getActiveCount());
+        m.put("naFila", executor.getQueue().size());
+        m.put("capacidadeFila", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        m.put("rejeitados", rejeitados.sum());
+        m.put("timeoutsFila", timeouts.sum());
+        m.put("tempoFila", fila.stats());
+        m.put("tempoHash", hash.stats());
+        return m;
+    }
+
+    // contagem, média e máximo em ms (máximo desde o start)
+    private static final class Tempo {
+        private final LongAdder n = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void registrar(long nanos) {
+            n.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> stats() {
+            long c = n.sum();
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("contagem", c);
+            s.put("mediaMs", c == 0 ? 0.0 : totalNanos.sum() / 1e6 / c);
+            s.put("maxMs", maxNanos.get() / 1e6);
+            return s;
+        }
+    }
+}
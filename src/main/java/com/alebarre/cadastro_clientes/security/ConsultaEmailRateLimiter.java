@@ -0,0 +1,45 @@
+package com.alebarre.cadastro_clientes.security;
+
+import com.alebarre.cadastro_clientes.exception.LimiteExcedidoException;
+import com.alebarre.cadastro_clientes.service.MetricasProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Limite por IP da consulta pública "e-mail já cadastrado?" (GET /api/clientes/email/{email}),
+ * para ela não virar um oráculo de enumeração de clientes.
+ */
+@Component
+public class ConsultaEmailRateLimiter implements MetricasProvider {
+
+    private final GcraLimiter porIp;
+
+    public ConsultaEmailRateLimiter(@Value("${app.email-check.limite.tentativas:20}") int tentativas,
+                                    @Value("${app.email-check.limite.periodo:PT1M}") Duration periodo,
+                                    @Value("${app.email-check.limite.max-chaves:100000}") int maxChaves) {
+        this.porIp = new GcraLimiter(tentativas, periodo, maxChaves);
+    }
+
+    public void reservar(String ip) {
+        long espera = porIp.reservar(ip, System.nanoTime());
+        if (espera > 0) {
+            int s = GcraLimiter.segundos(espera);
+            throw new LimiteExcedidoException("Muitas consultas de e-mail. Tente novamente em " + s + " segundos.", s);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-check.limite.limpeza:PT1M}")
+    public void removerOciosas() {
+        porIp.removerOciosas(System.nanoTime());
+    }
+
+    @Override
+    public String nomeMetricas() { return "consultaEmailRateLimiter"; }
+
+    @Override
+    public Map<String, Object> metricas() { return porIp.stats(); }
+}
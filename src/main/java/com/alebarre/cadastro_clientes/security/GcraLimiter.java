@@ -0,0 +1,106 @@
+package com.alebarre.cadastro_clientes.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador GCRA por chave: um "theoretical arrival time" (TAT) num AtomicLong, reservado por CAS.
+ * Equivale a um token bucket de {@code tentativas} fichas repostas ao longo de {@code periodo}.
+ * Verificar e consumir são um passo só, então N chamadas concorrentes nunca levam mais que o limite.
+ * Com o mapa cheio, chaves novas nunca são recusadas: saem primeiro as ociosas e, se preciso, as de menor TAT
+ * (as mais perto de ociosas, cujo "perdão" vale menos) até 90% de {@code maxChaves}. Assim uma rajada de chaves
+ * distintas não bloqueia quem ainda não tem entrada; no pior caso, alguma chave volta a ter a rajada inteira.
+ */
+public class GcraLimiter {
+
+    private final long intervalo;   // ns entre fichas (periodo / tentativas)
+    private final long tolerancia;  // ns de "rajada" aceitos: periodo - intervalo
+    private final int maxChaves;
+    private final ConcurrentHashMap<String, AtomicLong> tat = new ConcurrentHashMap<>();
+    private final AtomicBoolean abrindoEspaco = new AtomicBoolean();
+    private final LongAdder bloqueios = new LongAdder();
+    private final LongAdder removidasCheio = new LongAdder();
+
+    public GcraLimiter(int tentativas, Duration periodo, int maxChaves) {
+        if (tentativas <= 0) throw new IllegalArgumentException("tentativas deve ser > 0");
+        long p = periodo.toNanos();
+        this.intervalo = p / tentativas;
+        this.tolerancia = p - intervalo;
+        this.maxChaves = maxChaves;
+    }
+
+    /**
+     * Reserva uma ficha para {@code chave}. Devolve 0 se reservou, ou os nanossegundos até a próxima
+     * ficha (nada é consumido nesse caso).
+     */
+    public long reservar(String chave, long agora) {
+        AtomicLong t = tat.get(chave);
+        if (t == null) {
+            if (tat.size() >= maxChaves) abrirEspaco(agora);
+            t = tat.computeIfAbsent(chave, k -> new AtomicLong(agora));
+        }
+        while (true) {
+            long atual = t.get();
+            long espera = atual - agora - tolerancia;
+            if (espera > 0) {
+                bloqueios.increment();
+                return espera;
+            }
+            long novo = Math.max(atual, agora) + intervalo;
+            if (t.compareAndSet(atual, novo)) return 0;
+        }
+    }
+
+    /** Devolve uma ficha reservada (ex.: a tentativa deu certo e não deve contar). */
+    public void devolver(String chave) {
+        AtomicLong t = tat.get(chave);
+        if (t != null) t.addAndGet(-intervalo);
+    }
+
+    public void limpar(String chave) {
+        tat.remove(chave);
+    }
+
+    // ociosa = TAT já no passado, ou seja, estado igual ao de uma chave nova
+    public void removerOciosas(long agora) {
+        tat.entrySet().removeIf(e -> e.getValue().get() - agora <= 0);
+    }
+
+    // um thread por vez; os demais inserem mesmo assim (o mapa passa do limite por pouco, sem esperar lock)
+    private void abrirEspaco(long agora) {
+        if (!abrindoEspaco.compareAndSet(false, true)) return;
+        try {
+            removerOciosas(agora);
+            int alvo = (int) (maxChaves * 9L / 10);
+            int excesso = tat.size() - alvo;
+            if (excesso <= 0) return;
+            long[] tats = tat.values().stream().mapToLong(AtomicLong::get).toArray();
+            Arrays.sort(tats);
+            long corte = tats[Math.min(excesso, tats.length) - 1];
+            int antes = tat.size();
+            tat.values().removeIf(v -> v.get() <= corte);
+            removidasCheio.add(Math.max(0, antes - tat.size()));
+        } finally {
+            abrindoEspaco.set(false);
+        }
+    }
+
+    public static int segundos(long nanos) {
+        return (int) Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("chaves", tat.size());
+        s.put("maxChaves", maxChaves);
+        s.put("bloqueios", bloqueios.sum());
+        s.put("removidasMapaCheio", removidasCheio.sum());
+        return s;
+    }
+}
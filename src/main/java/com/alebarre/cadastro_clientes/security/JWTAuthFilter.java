@@ -13,10 +13,10 @@ import java.io.IOException;
 @Component
 public class JWTAuthFilter extends OncePerRequestFilter {
     private final JWTService jwt;
-    private final UserDetailsService uds;
+    private final UsuarioStatusCache status;
 
-    public JWTAuthFilter(JWTService jwt, UserDetailsService uds) {
-        this.jwt = jwt; this.uds = uds;
+    public JWTAuthFilter(JWTService jwt, UsuarioStatusCache status) {
+        this.jwt = jwt; this.status = status;
     }
 
     @Override
@@ -29,14 +29,19 @@ public class JWTAuthFilter extends OncePerRequestFilter {
         }
 
         final String token = auth.substring(7);
-        String username;
-        try { username = jwt.extractUsername(token); }
+        JWTService.TokenClaims claims;
+        // assinatura e exp verificadas uma vez só (ou vindas do cache de tokens verificados)
+        try { claims = jwt.verify(token); }
         catch (Exception e) { chain.doFilter(req, res); return; }
 
+        String username = claims.username();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails user = uds.loadUserByUsername(username);
-            if (jwt.isValid(token, user.getUsername())) {
-                var authToken = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+            // Authentication montado a partir das claims; do banco só o status (cacheado por poucos segundos)
+            var st = status.status(username);
+            if (st.ativo()) {
+                var authorities = st.autorizadas(claims.roles());
+                var user = new User(username, "", authorities);
+                var authToken = new UsernamePasswordAuthenticationToken(user, null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -1,39 +1,83 @@
 package com.alebarre.cadastro_clientes.security;
 
+import com.alebarre.cadastro_clientes.cache.ConcurrentBoundedCache;
+import com.alebarre.cadastro_clientes.service.MetricasProvider;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.function.Function;
 
 @Service
-public class JWTService {
+public class JWTService implements MetricasProvider {
     private final Key key;
     private final long expirationMs;
+    private final JwtParser parser; // imutável e thread-safe: montado uma vez
+    private final ConcurrentBoundedCache<String, TokenClaims> verificados; // null = cache desligado
+
+    /** Claims já verificadas (assinatura + exp) de um access token. */
+    public record TokenClaims(String username, String roles, Instant expiresAt) {}
 
     public JWTService(
             @Value("${jwt.secret}") String secret,
             // default PT1H evita “0 ms” se propriedade não estiver setada
-            @Value("${jwt.expiration:PT1H}") Duration expiration
+            @Value("${jwt.expiration:PT1H}") Duration expiration,
+            @Value("${jwt.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${jwt.cache.max-size:10000}") int cacheMaxSize
     ) {
         this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
         this.expirationMs = expiration.toMillis();
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verificados = cacheEnabled ? new ConcurrentBoundedCache<>(cacheMaxSize, null) : null;
         System.out.println("[JwtService] expirationMs=" + this.expirationMs); // log de diagnóstico
     }
 
+    /**
+     * Verifica assinatura e expiração uma única vez e devolve as claims tipadas.
+     * Tokens já verificados vêm do cache (chave = SHA-256 do token) até o próprio "exp".
+     * @throws JwtException token inválido, adulterado ou expirado
+     */
+    public TokenClaims verify(String token) {
+        if (verificados == null) return parse(token);
+        String chave = digest(token);
+        TokenClaims c = verificados.getIfPresent(chave);
+        if (c != null) return c;
+        c = parse(token);
+        verificados.put(chave, c, c.expiresAt().toEpochMilli());
+        return c;
+    }
+
+    private TokenClaims parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody(); // lança ExpiredJwtException se passou do exp
+        if (claims.getExpiration() == null) throw new MalformedJwtException("Token sem exp");
+        return new TokenClaims(claims.getSubject(), claims.get("roles", String.class), claims.getExpiration().toInstant());
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     public <T> T extractClaim(String token, Function<Claims,T> resolver) {
-        final Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody();
-        return resolver.apply(claims);
+        return resolver.apply(parser.parseClaimsJws(token).getBody());
     }
 
     public long getExpirationSeconds() { return expirationMs / 1000; }
@@ -51,13 +95,21 @@ public class JWTService {
 
     public boolean isValid(String token, String username) {
         try {
-            return extractUsername(token).equals(username) && !isExpired(token);
+            return verify(token).username().equals(username);
         } catch (Exception e) { return false; }
     }
 
     public boolean isExpired(String token) {
-        Date exp = extractClaim(token, Claims::getExpiration);
-        return exp.before(new Date());
+        try {
+            return !verify(token).expiresAt().isAfter(Instant.now());
+        } catch (ExpiredJwtException e) { return true; }
     }
-}
 
+    @Override
+    public String nomeMetricas() { return "jwtCache"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        return verificados == null ? Map.of("habilitado", false) : verificados.stats();
+    }
+}
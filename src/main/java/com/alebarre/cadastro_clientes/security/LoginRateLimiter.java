@@ -0,0 +1,83 @@
+package com.alebarre.cadastro_clientes.security;
+
+import com.alebarre.cadastro_clientes.exception.TooManyLoginAttemptsException;
+import com.alebarre.cadastro_clientes.service.MetricasProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limite de tentativas de login por usuário e por IP ({@link GcraLimiter}: sem locks, sem lista de timestamps).
+ * Cada tentativa reserva uma ficha nos dois limitadores antes do BCrypt; login certo devolve as fichas.
+ * O IP é checado primeiro: IP bloqueado não cria chave de usuário, então uma rajada de usernames distintos
+ * vindos de poucos IPs não enche o mapa de usuários. Mapa cheio descarta as chaves mais ociosas, nunca recusa.
+ */
+@Component
+public class LoginRateLimiter implements MetricasProvider {
+
+    private final GcraLimiter porUsuario;
+    private final GcraLimiter porIp;
+
+    public LoginRateLimiter(@Value("${app.login.limite.usuario.tentativas:5}") int tentativasUsuario,
+                            @Value("${app.login.limite.usuario.periodo:PT5M}") Duration periodoUsuario,
+                            @Value("${app.login.limite.ip.tentativas:50}") int tentativasIp,
+                            @Value("${app.login.limite.ip.periodo:PT1M}") Duration periodoIp,
+                            @Value("${app.login.limite.max-chaves:100000}") int maxChaves) {
+        this.porUsuario = new GcraLimiter(tentativasUsuario, periodoUsuario, maxChaves);
+        this.porIp = new GcraLimiter(tentativasIp, periodoIp, maxChaves);
+    }
+
+    /**
+     * Reserva a tentativa (IP e usuário) antes de checar a senha, atomicamente: rajadas paralelas não
+     * passam do limite. Lança 429 com o tempo real até a próxima tentativa; nada fica reservado nesse caso.
+     */
+    public void reservar(String username, String ip) {
+        long agora = System.nanoTime();
+        String u = chave(username);
+        long espera = porIp.reservar(ip, agora);
+        if (espera == 0) {
+            espera = porUsuario.reservar(u, agora);
+            if (espera > 0) porIp.devolver(ip);
+        }
+        if (espera > 0) throw new TooManyLoginAttemptsException(GcraLimiter.segundos(espera));
+    }
+
+    /** Login certo: zera o usuário e devolve a ficha do IP (falhas anteriores do IP continuam contando). */
+    public void sucesso(String username, String ip) {
+        porUsuario.limpar(chave(username));
+        porIp.devolver(ip);
+    }
+
+    /** Tentativa que não chegou a checar a senha (ex.: 503 do hash): devolve as duas fichas. */
+    public void devolver(String username, String ip) {
+        porUsuario.devolver(chave(username));
+        porIp.devolver(ip);
+    }
+
+    private static String chave(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Scheduled(fixedDelayString = "${app.login.limite.limpeza:PT1M}")
+    public void removerOciosas() {
+        long agora = System.nanoTime();
+        porUsuario.removerOciosas(agora);
+        porIp.removerOciosas(agora);
+    }
+
+    @Override
+    public String nomeMetricas() { return "loginRateLimiter"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("usuario", porUsuario.stats());
+        m.put("ip", porIp.stats());
+        return m;
+    }
+}
@@ -1,5 +1,6 @@
 package com.alebarre.cadastro_clientes.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.*;
@@ -17,13 +18,20 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 @EnableMethodSecurity
 @Configuration
 public class SecurityConfig {
 
-    @Bean PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    // BCrypt num pool limitado: picos de login não ocupam os workers do Tomcat (503 quando satura)
+    @Bean BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.password-hash.threads:4}") int threads,
+            @Value("${app.password-hash.fila:100}") int fila,
+            @Value("${app.password-hash.timeout-fila:PT2S}") Duration timeoutFila) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, fila, timeoutFila);
+    }
 
     @Bean
     AuthenticationProvider authProvider(AppUserDetailsService uds, PasswordEncoder pe) {
@@ -69,7 +77,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // públicos
                         .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/apli/clientes/email/**").permitAll()
+                        // só a checagem unitária (cadastro); limitada por IP no controller. O lote exige login
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/clientes/email/*").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
 
                         // modalidades: requer usuário autenticado (role USER ou ADMIN)
@@ -94,8 +103,8 @@ public class SecurityConfig {
         CorsConfiguration cfg = new CorsConfiguration();
         cfg.setAllowedOrigins(List.of("http://localhost:4200"));
         cfg.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","X-Requested-With"));
-        cfg.setExposedHeaders(List.of("Authorization"));
+        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","X-Requested-With","If-None-Match"));
+        cfg.setExposedHeaders(List.of("Authorization", "ETag"));
         cfg.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
@@ -0,0 +1,64 @@
+package com.alebarre.cadastro_clientes.security;
+
+import com.alebarre.cadastro_clientes.cache.ConcurrentBoundedCache;
+import com.alebarre.cadastro_clientes.repository.AppUserRepository;
+import com.alebarre.cadastro_clientes.service.AppUserAlteradoEvent;
+import com.alebarre.cadastro_clientes.service.MetricasProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Status atual de cada usuário (habilitado + roles do banco) para o JWTAuthFilter, com TTL curto.
+ * Alterações locais invalidam na hora (AppUserAlteradoEvent); em outras instâncias valem em até {@code ttl}.
+ */
+@Component
+public class UsuarioStatusCache implements MetricasProvider {
+
+    /** Usuário inexistente = inativo (também fica em cache, p/ tokens de usuários excluídos). */
+    public record Status(boolean ativo, Set<String> roles) {
+        static final Status INATIVO = new Status(false, Set.of());
+
+        /** Roles do token que o usuário ainda tem: rebaixamento vale sem esperar o token expirar. */
+        public List<GrantedAuthority> autorizadas(String rolesDoToken) {
+            if (rolesDoToken == null) return List.of();
+            return AppUserDetailsService.toAuthorities(rolesDoToken).stream()
+                    .filter(a -> roles.contains(a.getAuthority()))
+                    .map(a -> (GrantedAuthority) a)
+                    .toList();
+        }
+    }
+
+    private final AppUserRepository repo;
+    private final ConcurrentBoundedCache<String, Status> cache;
+
+    public UsuarioStatusCache(AppUserRepository repo,
+                              @Value("${app.security.status-cache.max-size:10000}") int maxSize,
+                              @Value("${app.security.status-cache.ttl:PT30S}") Duration ttl) {
+        this.repo = repo;
+        this.cache = new ConcurrentBoundedCache<>(maxSize, ttl);
+    }
+
+    public Status status(String username) {
+        return cache.get(username, u -> repo.findStatusByUsername(u)
+                .map(s -> new Status(s.enabled(), AppUserDetailsService.toAuthorities(s.roles()).stream()
+                        .map(SimpleGrantedAuthority::getAuthority)
+                        .collect(Collectors.toUnmodifiableSet())))
+                .orElse(Status.INATIVO));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppUserAlterado(AppUserAlteradoEvent e) { cache.invalidate(e.username()); }
+
+    @Override
+    public String nomeMetricas() { return "usuarioStatusCache"; }
+
+    @Override
+    public Map<String, Object> metricas() { return cache.stats(); }
+}
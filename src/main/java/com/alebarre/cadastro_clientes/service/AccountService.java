@@ -4,6 +4,7 @@ import com.alebarre.cadastro_clientes.domain.AppUser;
 import com.alebarre.cadastro_clientes.exception.FieldErrorException;
 import com.alebarre.cadastro_clientes.repository.AppUserRepository;
 import jakarta.validation.ValidationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -14,13 +15,16 @@ public class AccountService {
     private final PasswordEncoder encoder;
     private final PasswordPolicyService policy;
     private final RefreshTokenService refreshTokens;
+    private final ApplicationEventPublisher events;
 
     public AccountService(AppUserRepository users, PasswordEncoder encoder,
-                          PasswordPolicyService policy, RefreshTokenService refreshTokens) {
+                          PasswordPolicyService policy, RefreshTokenService refreshTokens,
+                          ApplicationEventPublisher events) {
         this.users = users;
         this.encoder = encoder;
         this.policy = policy;
         this.refreshTokens = refreshTokens;
+        this.events = events;
     }
 
     public void changePassword(String username, String currentRaw, String newRaw) {
@@ -46,6 +50,7 @@ public class AccountService {
         // troca a senha
         u.setPassword(encoder.encode(newRaw));
         users.save(u);
+        events.publishEvent(new AppUserAlteradoEvent(username));
 
         // revogar todos os refresh tokens do usuário (forçar re-login)
         refreshTokens.revokeAll(username);
@@ -0,0 +1,4 @@
+package com.alebarre.cadastro_clientes.service;
+
+/** Publicado quando um usuário muda (status, roles, senha) ou é excluído; caches de segurança descartam a entrada. */
+public record AppUserAlteradoEvent(String username) {}
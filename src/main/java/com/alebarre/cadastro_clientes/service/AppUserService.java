@@ -7,6 +7,7 @@ import com.alebarre.cadastro_clientes.domain.AppUser;
 import com.alebarre.cadastro_clientes.repository.AppUserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -21,10 +22,12 @@ public class AppUserService {
 
     private final AppUserRepository repo;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher events;
 
-    public AppUserService(AppUserRepository repo, PasswordEncoder passwordEncoder) {
+    public AppUserService(AppUserRepository repo, PasswordEncoder passwordEncoder, ApplicationEventPublisher events) {
         this.repo = repo;
         this.passwordEncoder = passwordEncoder;
+        this.events = events;
     }
 
     // ===== Helpers de roles (string <-> lista) =====
@@ -115,6 +118,9 @@ public class AppUserService {
         if (!u.getEmail().equals(req.email()) && repo.existsByEmail(req.email()))
             throw new ValidationException("Email já cadastrado.");
 
+        // username antigo e novo: tokens do nome antigo deixam de valer
+        events.publishEvent(new AppUserAlteradoEvent(u.getUsername()));
+        events.publishEvent(new AppUserAlteradoEvent(req.username()));
         u.setUsername(req.username());
         if (req.password() != null && !req.password().isBlank())
             u.setPassword(passwordEncoder.encode(req.password()));
@@ -149,5 +155,6 @@ public class AppUserService {
             }
         }
         repo.delete(u);
+        events.publishEvent(new AppUserAlteradoEvent(u.getUsername()));
     }
 }
@@ -10,6 +10,7 @@ import com.alebarre.cadastro_clientes.repository.PasswordResetTokenRepository;
 import com.alebarre.cadastro_clientes.repository.VerificationTokenRepository;
 import org.hibernate.validator.internal.constraintvalidators.bv.notempty.NotEmptyValidatorForArray;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -26,6 +27,7 @@ public class AuthExtrasService {
     private final EmailService mail;
     private final PasswordEncoder encoder;
     private final PasswordPolicyService policy;
+    private final ApplicationEventPublisher events;
 
     private final int signupTtlMin;
     private final int resetTtlMin;
@@ -39,6 +41,7 @@ public class AuthExtrasService {
             EmailService mail,
             PasswordEncoder encoder,
             PasswordPolicyService policy,
+            ApplicationEventPublisher events,
             @Value("${app.signup.code.ttl-min:15}") int signupTtlMin,
             @Value("${app.reset.code.ttl-min:15}") int resetTtlMin,
             @Value("${app.reset.max-attempts:5}") int resetMaxAttempts,
@@ -49,6 +52,7 @@ public class AuthExtrasService {
         this.mail = mail;
         this.encoder = encoder;
         this.policy = policy;
+        this.events = events;
         this.signupTtlMin = signupTtlMin;
         this.resetTtlMin = resetTtlMin;
         this.resetMaxAttempts = resetMaxAttempts;
@@ -160,6 +164,7 @@ public class AuthExtrasService {
 
         u.setEnabled(true);
         userRepo.save(u);
+        events.publishEvent(new AppUserAlteradoEvent(email));
         tok.setUsed(true);
         vRepo.save(tok);
     }
@@ -216,6 +221,7 @@ public class AuthExtrasService {
         policy.record(email, u.getPassword());
         u.setPassword(encoder.encode(newPassword));
         userRepo.save(u);
+        events.publishEvent(new AppUserAlteradoEvent(email));
 
         tok.setUsed(true);
         rRepo.save(tok);
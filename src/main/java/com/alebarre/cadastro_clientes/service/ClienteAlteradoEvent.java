@@ -0,0 +1,20 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.domain.Cliente;
+
+import java.time.LocalDate;
+
+/**
+ * Publicado pelo ClienteService a cada escrita; os ouvintes (índice de busca, caches...) reagem
+ * com @TransactionalEventListener, ou seja, só depois do commit.
+ */
+public record ClienteAlteradoEvent(Long id, String nome, String email, LocalDate dataNascimento, boolean removido) {
+
+    public static ClienteAlteradoEvent salvo(Cliente c) {
+        return new ClienteAlteradoEvent(c.getId(), c.getNome(), c.getEmail(), c.getDataNascimento(), false);
+    }
+
+    public static ClienteAlteradoEvent removido(Long id) {
+        return new ClienteAlteradoEvent(id, null, null, null, true);
+    }
+}
@@ -0,0 +1,94 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.cache.BoundedCache;
+import com.alebarre.cadastro_clientes.repository.ClienteRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totais de clientes por consulta normalizada, servidos do cache e recalculados em segundo plano
+ * quando ficam velhos (stale-while-revalidate). Quem usa deve tratar o valor como aproximado.
+ */
+@Component
+public class ClienteCountCache implements MetricasProvider {
+
+    public record Contagem(long total, Instant calculadoEm) {}
+
+    private final ClienteRepository repo;
+    private final long staleAfterMillis;
+
+    // LRU: consultas livres do usuário não podem crescer sem limite, e as quentes ficam
+    private final BoundedCache<String, Contagem> counts;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refresher;
+
+    private final LongAdder refreshes = new LongAdder();
+
+    public ClienteCountCache(ClienteRepository repo,
+                             @Value("${app.count-cache.stale-after:PT1M}") Duration staleAfter,
+                             @Value("${app.count-cache.max-entries:1000}") int maxEntries) {
+        this.repo = repo;
+        this.staleAfterMillis = staleAfter.toMillis();
+        this.counts = new BoundedCache<>(maxEntries, null);
+        this.refresher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(100), r -> {
+                    Thread t = new Thread(r, "cliente-count-refresh");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public Contagem total(String q) {
+        String key = normalize(q);
+        Contagem c = counts.getIfPresent(key);
+        if (c == null) {
+            c = contar(key);
+            counts.put(key, c);
+            return c;
+        }
+        boolean stale = System.currentTimeMillis() - c.calculadoEm().toEpochMilli() > staleAfterMillis;
+        if (stale && refreshing.add(key)) {
+            try {
+                refresher.execute(() -> {
+                    try { counts.put(key, contar(key)); refreshes.increment(); }
+                    finally { refreshing.remove(key); }
+                });
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+            }
+        }
+        return c;
+    }
+
+    private Contagem contar(String key) {
+        long total = key.isEmpty() ? repo.count() : repo.countBusca(key);
+        return new Contagem(total, Instant.now());
+    }
+
+    private static String normalize(String q) {
+        return q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    void shutdown() { refresher.shutdownNow(); }
+
+    @Override
+    public String nomeMetricas() { return "clienteCountCache"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>(counts.stats());
+        m.put("recalculosEmSegundoPlano", refreshes.sum());
+        return m;
+    }
+}
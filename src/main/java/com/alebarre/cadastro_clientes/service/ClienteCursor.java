@@ -0,0 +1,43 @@
+package com.alebarre.cadastro_clientes.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Cursor opaco para paginação keyset: guarda a ordenação usada e a chave (valor do campo + id)
+ * da linha de referência. O cliente só repassa o token recebido em {@code after}/{@code before}.
+ */
+public record ClienteCursor(String sort, String dir, Object valor, Long id) {
+
+    public static final Set<String> SORTS = Set.of("nome", "email", "dataNascimento", "id");
+
+    public String encode() {
+        String v = (valor == null) ? "-" : "+" + valor;
+        String raw = sort + "|" + dir + "|" + id + "|" + v;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ClienteCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] p = raw.split("\\|", 4);
+            if (p.length != 4 || !SORTS.contains(p[0])) throw new IllegalArgumentException();
+            String sort = p[0];
+            Long id = Long.valueOf(p[2]);
+            Object valor = p[3].startsWith("+") ? parseValor(sort, p[3].substring(1)) : null;
+            return new ClienteCursor(sort, p[1], valor, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private static Object parseValor(String sort, String v) {
+        return switch (sort) {
+            case "dataNascimento" -> LocalDate.parse(v);
+            case "id" -> Long.valueOf(v);
+            default -> v;
+        };
+    }
+}
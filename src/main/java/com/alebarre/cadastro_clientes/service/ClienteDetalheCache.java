@@ -0,0 +1,62 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.ClienteCardDTO;
+import com.alebarre.cadastro_clientes.DTO.ClienteResponseDTO;
+import com.alebarre.cadastro_clientes.cache.BoundedCache;
+import com.alebarre.cadastro_clientes.cache.Versionado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de detalhe/card de cliente por id (com ETag). Invalidado depois do commit de cada escrita
+ * no cliente; alteração em modalidade limpa tudo, já que os DTOs embutem nome/valor da modalidade.
+ */
+@Component
+public class ClienteDetalheCache implements MetricasProvider {
+    private final BoundedCache<Long, Versionado<ClienteResponseDTO>> detalhes;
+    private final BoundedCache<Long, Versionado<ClienteCardDTO>> cards;
+
+    public ClienteDetalheCache(@Value("${app.cache.cliente.max-size:10000}") int maxSize) {
+        this.detalhes = new BoundedCache<>(maxSize, null);
+        this.cards = new BoundedCache<>(maxSize, null);
+    }
+
+    public BoundedCache<Long, Versionado<ClienteResponseDTO>> detalhes() { return detalhes; }
+
+    public BoundedCache<Long, Versionado<ClienteCardDTO>> cards() { return cards; }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent e) {
+        detalhes.invalidate(e.id());
+        cards.invalidate(e.id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesEmLote(ClientesEmLoteEvent e) {
+        e.ids().forEach(id -> {
+            detalhes.invalidate(id);
+            cards.invalidate(id);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModalidadeAlterada(ModalidadeAlteradaEvent e) {
+        detalhes.invalidateAll();
+        cards.invalidateAll();
+    }
+
+    @Override
+    public String nomeMetricas() { return "clienteDetalheCache"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("detalhes", detalhes.stats());
+        m.put("cards", cards.stats());
+        return m;
+    }
+}
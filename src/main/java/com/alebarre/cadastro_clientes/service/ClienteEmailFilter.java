@@ -0,0 +1,184 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.cache.BloomFilter;
+import com.alebarre.cadastro_clientes.repository.ClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter dos e-mails de clientes na frente do existsByEmail: "não existe" é respondido
+ * sem ir ao banco. Carregado no startup e alimentado pelos ClienteAlteradoEvent; e-mails antigos
+ * (update/delete) ficam no filtro e só custam falsos positivos. Quando as inserções passam da
+ * capacidade, o filtro é reconstruído com o dobro do tamanho.
+ * A chave do filtro segue a collation da coluna (_ai_ci: ignora caixa e acentos): dois e-mails que o
+ * banco considera iguais precisam cair na mesma chave, senão o filtro daria "não existe" para um existente.
+ */
+@Component
+public class ClienteEmailFilter implements MetricasProvider {
+    private static final Logger log = LoggerFactory.getLogger(ClienteEmailFilter.class);
+    private static final int CHUNK = 5_000;
+
+    private final ClienteRepository repo;
+    private final boolean enabled;
+    private final long capacidadeInicial;
+    private final double fpp;
+
+    private volatile BloomFilter atual;
+    private volatile BloomFilter emConstrucao;
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // inserções de eventos x troca de filtro: sem isso um e-mail pode cair só no filtro descartado
+    private final Object troca = new Object();
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder negativos = new LongAdder();
+    private final LongAdder positivosConfirmados = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    public ClienteEmailFilter(ClienteRepository repo,
+                              @Value("${app.email-filter.enabled:true}") boolean enabled,
+                              @Value("${app.email-filter.capacidade:100000}") long capacidade,
+                              @Value("${app.email-filter.fpp:0.01}") double fpp) {
+        this.repo = repo;
+        this.enabled = enabled;
+        this.capacidadeInicial = capacidade;
+        this.fpp = fpp;
+    }
+
+    public static String normalizar(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Chave de comparação igual à do banco: sem caixa e sem acentos (como ClienteSearchIndex.normalize). */
+    public static String chaveComparacao(String email) {
+        return ClienteSearchIndex.normalize(email);
+    }
+
+    /** false = certamente não cadastrado; true = precisa confirmar no banco. */
+    public boolean talvezExista(String email) {
+        consultas.increment();
+        BloomFilter f = atual;
+        if (!enabled || !ready || f == null) return true;
+        String chave = chaveComparacao(email);
+        // sobrou não-ASCII (ex.: ß, ligaduras): a collation tem equivalências que a chave não cobre
+        if (!ascii(chave)) return true;
+        boolean talvez = f.mightContain(chave);
+        if (!talvez) negativos.increment();
+        return talvez;
+    }
+
+    /** Resultado do banco para um "talvez": alimenta a taxa de falso positivo observada. */
+    public void registrarConfirmacao(boolean existe) {
+        if (!ready) return;
+        if (existe) positivosConfirmados.increment(); else falsosPositivos.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) rebuildAsync(capacidadeInicial);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent e) {
+        if (!enabled || e.removido() || e.email() == null) return;
+        String email = chaveComparacao(e.email());
+        BloomFilter f;
+        synchronized (troca) {
+            f = atual;
+            if (f != null) f.put(email);
+            // publicado antes da carga começar, então nada se perde durante a reconstrução
+            BloomFilter novo = emConstrucao;
+            if (novo != null) novo.put(email);
+        }
+        if (f != null && ready && f.insercoes() > f.capacidade()) rebuildAsync(f.capacidade() * 2);
+    }
+
+    private void rebuildAsync(long capacidade) {
+        if (!rebuilding.compareAndSet(false, true)) return;
+        Thread t = new Thread(() -> rebuild(capacidade), "cliente-email-filter");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void rebuild(long capacidade) {
+        long t0 = System.currentTimeMillis();
+        try {
+            // dimensionado pela base atual (com folga para crescer), não só pela configuração
+            capacidade = Math.max(capacidade, repo.count() * 2);
+            BloomFilter novo;
+            do {
+                novo = new BloomFilter(capacidade, fpp);
+                synchronized (troca) { emConstrucao = novo; }
+                long afterId = 0;
+                List<Object[]> chunk;
+                do {
+                    chunk = repo.findIndexChunk(afterId, PageRequest.of(0, CHUNK));
+                    for (Object[] row : chunk) {
+                        novo.put(chaveComparacao((String) row[2]));
+                        afterId = (Long) row[0];
+                    }
+                } while (chunk.size() == CHUNK);
+                // base maior que o previsto: refaz com folga
+                capacidade = Math.max(capacidade, novo.insercoes() * 2);
+            } while (novo.insercoes() > novo.capacidade());
+
+            synchronized (troca) {
+                atual = novo;
+                emConstrucao = null;
+            }
+            ready = true;
+            log.info("Filtro de e-mails de clientes pronto: {} e-mails em {} ms",
+                    novo.insercoes(), System.currentTimeMillis() - t0);
+        } catch (RuntimeException ex) {
+            log.error("Falha ao carregar filtro de e-mails; consultas vão direto ao banco", ex);
+        } finally {
+            synchronized (troca) { emConstrucao = null; }
+            rebuilding.set(false);
+        }
+    }
+
+    private static boolean ascii(String s) {
+        for (int i = 0; i < s.length(); i++) if (s.charAt(i) > 0x7f) return false;
+        return true;
+    }
+
+    @Override
+    public String nomeMetricas() { return "clienteEmailFilter"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        BloomFilter f = atual;
+        long pos = positivosConfirmados.sum(), fp = falsosPositivos.sum();
+        m.put("pronto", ready);
+        m.put("consultas", consultas.sum());
+        m.put("negativosSemBanco", negativos.sum());
+        m.put("positivosConfirmados", pos);
+        m.put("falsosPositivos", fp);
+        long neg = negativos.sum();
+        // entre os e-mails não cadastrados consultados, quantos o filtro deixou passar
+        m.put("taxaFalsoPositivo", (fp + neg) == 0 ? 0.0 : (double) fp / (fp + neg));
+        if (f != null) {
+            m.put("capacidade", f.capacidade());
+            m.put("insercoes", f.insercoes());
+            m.put("bits", f.numBits());
+            m.put("hashes", f.numHashes());
+            m.put("saturacao", f.saturacao());
+            m.put("fppEstimada", f.fppEstimada());
+        }
+        return m;
+    }
+}
@@ -0,0 +1,214 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.ClienteEstatisticasDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioAgregadosDTO.Grupo;
+import com.alebarre.cadastro_clientes.domain.Cliente;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores do dashboard (status, modalidade, UF) na tabela cliente_estatistica. As escritas em
+ * cliente aplicam deltas na mesma transação; leitura é só a tabela pequena. Um job periódico recalcula
+ * tudo e corrige divergências (ex.: alterações feitas direto no banco).
+ */
+@Service
+public class ClienteEstatisticasService implements MetricasProvider {
+    private static final Logger log = LoggerFactory.getLogger(ClienteEstatisticasService.class);
+
+    public static final String STATUS = "status";
+    public static final String MODALIDADE = "modalidade";
+    public static final String UF = "uf";
+
+    /** Uma linha da tabela: (dimensao, chave). Comparável para aplicar deltas sempre na mesma ordem. */
+    public record Chave(String dimensao, String chave) implements Comparable<Chave> {
+        @Override
+        public int compareTo(Chave o) {
+            int c = dimensao.compareTo(o.dimensao);
+            return c != 0 ? c : chave.compareTo(o.chave);
+        }
+    }
+
+    private static final String UPSERT = """
+            INSERT INTO cliente_estatistica (dimensao, chave, total) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE total = total + ?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate leituraConsistente;
+    private final TransactionTemplate escrita;
+
+    private volatile Instant ultimaReconciliacao;
+    private final LongAdder reconciliacoes = new LongAdder();
+    private final LongAdder chavesCorrigidas = new LongAdder();
+    private final LongAdder deltasAplicados = new LongAdder();
+
+    public ClienteEstatisticasService(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.leituraConsistente = new TransactionTemplate(txManager);
+        this.leituraConsistente.setReadOnly(true);
+        this.leituraConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.escrita = new TransactionTemplate(txManager);
+    }
+
+    /** Chaves às quais o cliente contribui com 1 (UF conta uma vez mesmo com 2 endereços). */
+    public static Set<Chave> chavesDe(Cliente c) {
+        Set<Chave> out = new HashSet<>();
+        if (c == null) return out;
+        out.add(new Chave(STATUS, String.valueOf(c.isEnabled())));
+        if (c.getModalidades() != null)
+            c.getModalidades().forEach(m -> out.add(new Chave(MODALIDADE, String.valueOf(m.getId()))));
+        if (c.getEnderecos() != null)
+            c.getEnderecos().stream()
+                    .filter(e -> e.getUf() != null)
+                    .forEach(e -> out.add(new Chave(UF, e.getUf().toUpperCase(Locale.ROOT))));
+        return out;
+    }
+
+    /** Acumula em {@code deltas} a diferença entre o estado anterior e o novo de um cliente. */
+    public static void somar(Map<Chave, Long> deltas, Set<Chave> antes, Set<Chave> depois) {
+        for (Chave k : antes) if (!depois.contains(k)) deltas.merge(k, -1L, Long::sum);
+        for (Chave k : depois) if (!antes.contains(k)) deltas.merge(k, 1L, Long::sum);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void aplicar(Set<Chave> antes, Set<Chave> depois) {
+        Map<Chave, Long> deltas = new HashMap<>();
+        somar(deltas, antes, depois);
+        aplicar(deltas);
+    }
+
+    /** Aplica deltas na transação corrente, em ordem de chave (evita deadlock entre escritas concorrentes). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void aplicar(Map<Chave, Long> deltas) {
+        List<Object[]> args = new TreeMap<>(deltas).entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .map(e -> new Object[]{e.getKey().dimensao(), e.getKey().chave(), e.getValue(), e.getValue()})
+                .toList();
+        if (args.isEmpty()) return;
+        jdbc.batchUpdate(UPSERT, args);
+        deltasAplicados.add(args.size());
+    }
+
+    /** Deltas (negativos) da remoção de um conjunto de clientes, calculados no banco antes do DELETE. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Chave, Long> deltasRemocao(Collection<Long> ids) {
+        Map<Chave, Long> d = new HashMap<>();
+        if (ids.isEmpty()) return d;
+        var p = new MapSqlParameterSource("ids", ids);
+        named.query("SELECT IF(enabled, 'true', 'false'), COUNT(*) FROM cliente WHERE id IN (:ids) GROUP BY enabled",
+                p, rs -> { d.merge(new Chave(STATUS, rs.getString(1)), -rs.getLong(2), Long::sum); });
+        named.query("SELECT CAST(modalidade_id AS CHAR), COUNT(*) FROM cliente_modalidade WHERE cliente_id IN (:ids) GROUP BY modalidade_id",
+                p, rs -> { d.merge(new Chave(MODALIDADE, rs.getString(1)), -rs.getLong(2), Long::sum); });
+        named.query("SELECT UPPER(uf), COUNT(DISTINCT cliente_id) FROM endereco WHERE cliente_id IN (:ids) AND uf IS NOT NULL GROUP BY UPPER(uf)",
+                p, rs -> { d.merge(new Chave(UF, rs.getString(1)), -rs.getLong(2), Long::sum); });
+        return d;
+    }
+
+    @Transactional(readOnly = true)
+    public ClienteEstatisticasDTO ler() {
+        List<Grupo> status = new ArrayList<>(), modalidades = new ArrayList<>(), ufs = new ArrayList<>();
+        jdbc.query("""
+                SELECT e.dimensao, e.chave, e.total, m.nome
+                  FROM cliente_estatistica e
+                  LEFT JOIN modalidade m ON e.dimensao = 'modalidade' AND CAST(m.id AS CHAR) = e.chave
+                 WHERE e.total > 0
+                 ORDER BY e.dimensao, e.total DESC, e.chave
+                """, rs -> {
+            String chave = rs.getString(2);
+            long total = rs.getLong(3);
+            switch (rs.getString(1)) {
+                case STATUS -> status.add(new Grupo(chave, "true".equals(chave) ? "Ativos" : "Inativos", total));
+                case MODALIDADE -> modalidades.add(new Grupo(chave, rs.getString(4), total));
+                case UF -> ufs.add(new Grupo(chave, chave, total));
+                default -> { }
+            }
+        });
+        long total = status.stream().mapToLong(Grupo::total).sum();
+        return new ClienteEstatisticasDTO(total, status, modalidades, ufs, ultimaReconciliacao);
+    }
+
+    /**
+     * Recontagem completa comparada com a tabela, em duas transações curtas de efeito:
+     * 1) leitura sem lock num snapshot consistente (REPEATABLE READ): recontagem e valores da tabela vêm
+     *    do mesmo instante, e como os deltas das escritas entram na mesma transação delas, a diferença
+     *    entre os dois é exatamente a divergência;
+     * 2) só as diferenças são aplicadas como incrementos (total = total + d), que comutam com os deltas
+     *    que as escritas concorrentes aplicarem depois do snapshot. Ninguém espera pela recontagem.
+     * @return quantidade de chaves corrigidas
+     */
+    @Scheduled(fixedDelayString = "${app.estatisticas.reconciliar-a-cada:PT1H}",
+            initialDelayString = "${app.estatisticas.reconciliar-atraso-inicial:PT5M}")
+    public int reconciliar() {
+        Map<Chave, Long> deltas = leituraConsistente.execute(st -> divergencias());
+        if (!deltas.isEmpty()) {
+            escrita.executeWithoutResult(st -> {
+                aplicar(deltas);
+                // só as chaves corrigidas, não a tabela inteira
+                List<Object[]> zeradas = deltas.keySet().stream()
+                        .sorted()
+                        .map(k -> new Object[]{k.dimensao(), k.chave()})
+                        .toList();
+                jdbc.batchUpdate("DELETE FROM cliente_estatistica WHERE dimensao = ? AND chave = ? AND total = 0", zeradas);
+            });
+        }
+
+        ultimaReconciliacao = Instant.now();
+        reconciliacoes.increment();
+        chavesCorrigidas.add(deltas.size());
+        if (!deltas.isEmpty()) log.warn("Estatísticas de clientes divergentes corrigidas: {}", deltas);
+        return deltas.size();
+    }
+
+    // roda dentro da transação de leitura: todas as consultas veem o mesmo snapshot
+    private Map<Chave, Long> divergencias() {
+        Map<Chave, Long> atual = new HashMap<>();
+        jdbc.query("SELECT dimensao, chave, total FROM cliente_estatistica",
+                rs -> { atual.put(new Chave(rs.getString(1), rs.getString(2)), rs.getLong(3)); });
+
+        Map<Chave, Long> real = new HashMap<>();
+        jdbc.query("SELECT IF(enabled, 'true', 'false'), COUNT(*) FROM cliente GROUP BY enabled",
+                rs -> { real.put(new Chave(STATUS, rs.getString(1)), rs.getLong(2)); });
+        jdbc.query("SELECT CAST(modalidade_id AS CHAR), COUNT(*) FROM cliente_modalidade GROUP BY modalidade_id",
+                rs -> { real.put(new Chave(MODALIDADE, rs.getString(1)), rs.getLong(2)); });
+        jdbc.query("SELECT UPPER(uf), COUNT(DISTINCT cliente_id) FROM endereco WHERE uf IS NOT NULL GROUP BY UPPER(uf)",
+                rs -> { real.put(new Chave(UF, rs.getString(1)), rs.getLong(2)); });
+
+        Map<Chave, Long> deltas = new HashMap<>();
+        Set<Chave> todas = new HashSet<>(atual.keySet());
+        todas.addAll(real.keySet());
+        for (Chave k : todas) {
+            long diff = real.getOrDefault(k, 0L) - atual.getOrDefault(k, 0L);
+            if (diff != 0) deltas.put(k, diff);
+        }
+        return deltas;
+    }
+
+    @Override
+    public String nomeMetricas() { return "clienteEstatisticas"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("deltasAplicados", deltasAplicados.sum());
+        m.put("reconciliacoes", reconciliacoes.sum());
+        m.put("chavesCorrigidas", chavesCorrigidas.sum());
+        m.put("ultimaReconciliacao", ultimaReconciliacao);
+        return m;
+    }
+}
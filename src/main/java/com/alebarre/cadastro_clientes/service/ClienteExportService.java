@@ -0,0 +1,60 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO;
+import com.alebarre.cadastro_clientes.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de clientes direto para o stream da resposta: lê por cursor JDBC (forward-only) e
+ * escreve linha a linha, então a memória não depende do tamanho da tabela.
+ */
+@Service
+public class ClienteExportService {
+    public static final Set<String> FORMATOS = Set.of("csv", "ndjson");
+
+    private final ClienteRepository repo;
+    private final EntityManager em;
+    private final ObjectMapper mapper;
+    private final int chunk;
+
+    public ClienteExportService(ClienteRepository repo, EntityManager em, ObjectMapper mapper,
+                                @Value("${app.export.chunk-size:1000}") int chunk) {
+        this.repo = repo;
+        this.em = em;
+        this.mapper = mapper;
+        this.chunk = chunk;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportar(String formato, OutputStream out) throws IOException {
+        boolean csv = "csv".equals(formato);
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (csv) w.write(Csv.SUMMARY_HEADER + "\n");
+
+        long n = 0;
+        try (Stream<ClienteSummaryDTO> rows = repo.streamSummaries()) {
+            Iterator<ClienteSummaryDTO> it = rows.iterator();
+            while (it.hasNext()) {
+                ClienteSummaryDTO c = it.next();
+                w.write(csv ? Csv.summaryLine(c) : mapper.writeValueAsString(c) + "\n");
+                if (++n % chunk == 0) {
+                    // nada fica preso ao contexto de persistência entre blocos
+                    em.clear();
+                    w.flush();
+                }
+            }
+        }
+        w.flush();
+        return n;
+    }
+}
@@ -0,0 +1,268 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.ClienteRequestDTO;
+import com.alebarre.cadastro_clientes.DTO.EnderecoDTO;
+import com.alebarre.cadastro_clientes.domain.Cliente;
+import com.alebarre.cadastro_clientes.domain.Modalidade;
+import com.alebarre.cadastro_clientes.repository.ClienteRepository;
+import com.alebarre.cadastro_clientes.repository.ModalidadeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote de clientes (CSV ou NDJSON de ClienteRequestDTO). Valida e-mails e modalidades
+ * uma vez por bloco, com consultas por conjunto, e grava cada bloco na sua própria transação.
+ * O resultado (uma linha por registro) é escrito em CSV conforme os blocos terminam.
+ * O contexto de persistência é limpo a cada bloco (com OSIV ele vive a requisição inteira), e o arquivo
+ * é limitado a {@code app.import.max-linhas} registros (os e-mails já vistos ficam em memória).
+ */
+@Service
+public class ClienteImportService {
+    private static final Logger log = LoggerFactory.getLogger(ClienteImportService.class);
+
+    public static final String RESULT_HEADER = "linha;status;id;mensagem";
+
+    private final ClienteRepository clienteRepository;
+    private final ModalidadeRepository modalidadeRepository;
+    private final Validator validator;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate tx;
+    private final ClienteEstatisticasService estatisticas;
+    private final ApplicationEventPublisher events;
+    private final EntityManager em;
+    private final int chunkSize;
+    private final int maxLinhas;
+
+    public ClienteImportService(ClienteRepository clienteRepository, ModalidadeRepository modalidadeRepository,
+                                Validator validator, ObjectMapper mapper, PlatformTransactionManager txManager,
+                                ClienteEstatisticasService estatisticas, ApplicationEventPublisher events,
+                                EntityManager em,
+                                @Value("${app.import.chunk-size:500}") int chunkSize,
+                                @Value("${app.import.max-linhas:200000}") int maxLinhas) {
+        this.clienteRepository = clienteRepository;
+        this.modalidadeRepository = modalidadeRepository;
+        this.validator = validator;
+        this.mapper = mapper;
+        this.tx = new TransactionTemplate(txManager);
+        this.estatisticas = estatisticas;
+        this.events = events;
+        this.em = em;
+        this.chunkSize = chunkSize;
+        this.maxLinhas = maxLinhas;
+    }
+
+    private static final class Linha {
+        final long numero;
+        ClienteRequestDTO req;
+        String erro;
+        Cliente cliente;
+
+        Linha(long numero) { this.numero = numero; }
+    }
+
+    public record Resumo(long total, long importados, long erros) {}
+
+    public Resumo importar(String formato, InputStream in, OutputStream out) throws IOException {
+        boolean csv = "csv".equals(formato);
+        var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(RESULT_HEADER + "\n");
+
+        Map<String, Integer> header = null;
+        Set<String> emailsDoArquivo = new HashSet<>();
+        List<Linha> bloco = new ArrayList<>(chunkSize);
+        long numero = 0, registros = 0, ok = 0, erros = 0, excedeuNaLinha = 0;
+
+        String raw;
+        while ((raw = reader.readLine()) != null) {
+            numero++;
+            if (raw.isBlank()) continue;
+            if (csv && header == null) {
+                header = indexarCabecalho(Csv.parseLine(raw));
+                continue;
+            }
+            if (++registros > maxLinhas) {
+                // o resto do arquivo não é lido; o que veio antes é gravado normalmente
+                excedeuNaLinha = numero;
+                break;
+            }
+            Linha l = new Linha(numero);
+            try {
+                l.req = csv ? doCsv(Csv.parseLine(raw), header) : comEnabledPadrao(mapper.readValue(raw, ClienteRequestDTO.class));
+            } catch (Exception e) {
+                l.erro = "Linha malformada: " + e.getMessage();
+            }
+            bloco.add(l);
+            if (bloco.size() == chunkSize) {
+                long gravados = processarBloco(bloco, emailsDoArquivo);
+                ok += gravados;
+                erros += bloco.size() - gravados;
+                escrever(writer, bloco);
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            long gravados = processarBloco(bloco, emailsDoArquivo);
+            ok += gravados;
+            erros += bloco.size() - gravados;
+            escrever(writer, bloco);
+        }
+        if (excedeuNaLinha > 0) {
+            writer.write(Csv.line(excedeuNaLinha, "ERRO", "", "Limite de " + maxLinhas + " registros por arquivo excedido"));
+            erros++;
+        }
+        writer.flush();
+        return new Resumo(ok + erros, ok, erros);
+    }
+
+    private long processarBloco(List<Linha> bloco, Set<String> emailsDoArquivo) {
+        // 1) validações locais (bean validation + regras do ClienteService), sem banco
+        for (Linha l : bloco) {
+            if (l.erro != null) continue;
+            Set<ConstraintViolation<ClienteRequestDTO>> violacoes = validator.validate(l.req);
+            if (!violacoes.isEmpty()) {
+                l.erro = violacoes.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(" | "));
+                continue;
+            }
+            try {
+                if (l.req.modalidadeIds() != null) ClienteService.validarRegrasModalidades(l.req.modalidadeIds());
+            } catch (ValidationException e) {
+                l.erro = e.getMessage();
+                continue;
+            }
+            if (!emailsDoArquivo.add(l.req.email().toLowerCase(Locale.ROOT))) l.erro = "Email repetido no arquivo";
+        }
+
+        // 2) uma consulta por bloco para e-mails já cadastrados e outra para as modalidades
+        List<Linha> validas = bloco.stream().filter(l -> l.erro == null).toList();
+        if (validas.isEmpty()) return 0;
+
+        Set<String> existentes = clienteRepository.findExistingEmails(validas.stream().map(l -> l.req.email()).toList())
+                .stream().map(e -> e.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        Set<Long> idsModalidades = validas.stream()
+                .filter(l -> l.req.modalidadeIds() != null)
+                .flatMap(l -> l.req.modalidadeIds().stream())
+                .collect(Collectors.toSet());
+        Map<Long, Modalidade> modalidades = idsModalidades.isEmpty() ? Map.of()
+                : modalidadeRepository.findAllById(idsModalidades).stream()
+                .collect(Collectors.toMap(Modalidade::getId, Function.identity()));
+
+        List<Linha> gravar = new ArrayList<>();
+        for (Linha l : validas) {
+            if (existentes.contains(l.req.email().toLowerCase(Locale.ROOT))) { l.erro = "Email já cadastrado"; continue; }
+            List<Long> ids = l.req.modalidadeIds() == null ? List.of() : l.req.modalidadeIds();
+            if (!modalidades.keySet().containsAll(ids)) { l.erro = "Uma ou mais modalidades não existem."; continue; }
+            try {
+                Cliente c = new Cliente();
+                ClienteService.preencherDados(c, l.req);
+                c.setModalidades(ids.stream().map(modalidades::get).collect(Collectors.toCollection(HashSet::new)));
+                l.cliente = c;
+                gravar.add(l);
+            } catch (RuntimeException e) {
+                l.erro = e.getMessage();
+            }
+        }
+        if (gravar.isEmpty()) return 0;
+
+        // 3) grava o bloco numa transação; se falhar (ex.: corrida no e-mail), o bloco todo volta com erro
+        try {
+            tx.executeWithoutResult(status -> {
+                clienteRepository.saveAll(gravar.stream().map(l -> l.cliente).toList());
+                Map<ClienteEstatisticasService.Chave, Long> deltas = new HashMap<>();
+                gravar.forEach(l -> ClienteEstatisticasService.somar(deltas, Set.of(), ClienteEstatisticasService.chavesDe(l.cliente)));
+                estatisticas.aplicar(deltas);
+                gravar.forEach(l -> events.publishEvent(ClienteAlteradoEvent.salvo(l.cliente)));
+                // solta as entidades do bloco: com OSIV o mesmo EntityManager atende a importação inteira
+                em.flush();
+                em.clear();
+            });
+        } catch (RuntimeException e) {
+            em.clear();
+            log.warn("Falha ao gravar bloco da importação", e);
+            gravar.forEach(l -> { l.erro = "Falha ao gravar bloco: " + e.getMessage(); l.cliente = null; });
+            return 0;
+        }
+        return gravar.size();
+    }
+
+    // mesmo padrão do CSV: sem "enabled" o cliente entra ativo
+    private static ClienteRequestDTO comEnabledPadrao(ClienteRequestDTO r) {
+        if (r.enabled() != null) return r;
+        return new ClienteRequestDTO(r.nome(), true, r.email(), r.telefone(), r.cpf(), r.dataNascimento(),
+                r.enderecos(), r.modalidadeIds());
+    }
+
+    private static void escrever(Writer w, List<Linha> bloco) throws IOException {
+        for (Linha l : bloco) {
+            w.write(l.erro == null
+                    ? Csv.line(l.numero, "OK", l.cliente.getId(), "")
+                    : Csv.line(l.numero, "ERRO", "", l.erro));
+        }
+        w.flush();
+    }
+
+    // ===== CSV =====
+    // Colunas por nome: nome;email;telefone;cpf;dataNascimento;enabled;modalidadeIds (separadas por vírgula)
+    // e o endereço: logradouro;numero;complemento;bairro;cidade;uf;cep;pais (+ mesmas com sufixo 2)
+
+    private static Map<String, Integer> indexarCabecalho(List<String> cols) {
+        Map<String, Integer> idx = new HashMap<>();
+        for (int i = 0; i < cols.size(); i++) idx.put(cols.get(i).trim(), i);
+        if (!idx.containsKey("nome") || !idx.containsKey("email"))
+            throw new IllegalArgumentException("Cabeçalho CSV deve conter ao menos as colunas nome e email");
+        return idx;
+    }
+
+    private static ClienteRequestDTO doCsv(List<String> v, Map<String, Integer> h) {
+        List<EnderecoDTO> enderecos = new ArrayList<>();
+        for (String sufixo : List.of("", "2")) {
+            if (campo(v, h, "logradouro" + sufixo) == null) continue;
+            enderecos.add(new EnderecoDTO(null,
+                    campo(v, h, "cidade" + sufixo), campo(v, h, "logradouro" + sufixo), campo(v, h, "uf" + sufixo),
+                    campo(v, h, "bairro" + sufixo), campo(v, h, "numero" + sufixo), campo(v, h, "complemento" + sufixo),
+                    campo(v, h, "cep" + sufixo), campo(v, h, "pais" + sufixo)));
+        }
+        String mods = campo(v, h, "modalidadeIds");
+        List<Long> modalidadeIds = mods == null ? List.of()
+                : Arrays.stream(mods.split(",")).map(String::trim).filter(s -> !s.isEmpty()).map(Long::valueOf).toList();
+        String nasc = campo(v, h, "dataNascimento");
+        String enabled = campo(v, h, "enabled");
+
+        return new ClienteRequestDTO(
+                campo(v, h, "nome"),
+                enabled == null || Boolean.parseBoolean(enabled),
+                campo(v, h, "email"),
+                campo(v, h, "telefone"),
+                campo(v, h, "cpf"),
+                nasc == null ? null : LocalDate.parse(nasc),
+                enderecos,
+                modalidadeIds);
+    }
+
+    private static String campo(List<String> v, Map<String, Integer> h, String nome) {
+        Integer i = h.get(nome);
+        if (i == null || i >= v.size()) return null;
+        String s = v.get(i).trim();
+        return s.isEmpty() ? null : s;
+    }
+}
@@ -0,0 +1,126 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.ClienteLoteRequestDTO;
+import com.alebarre.cadastro_clientes.DTO.ClienteLoteResultadoDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioFiltroDTO;
+import com.alebarre.cadastro_clientes.domain.Cliente;
+import com.alebarre.cadastro_clientes.repository.ClienteRepository;
+import com.alebarre.cadastro_clientes.repository.ModalidadeRepository;
+import com.alebarre.cadastro_clientes.service.ClienteEstatisticasService.Chave;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Operações administrativas em lote (ativar/desativar, atribuir/remover modalidade, excluir), por lista
+ * de ids ou pelo filtro do relatório. Tudo via UPDATE/INSERT/DELETE por conjunto, em blocos de ids,
+ * sem carregar os agregados; caches e índice são avisados depois do commit.
+ */
+@Service
+public class ClienteLoteService {
+    private static final int BLOCO = 1000;
+
+    private final ClienteRepository clienteRepository;
+    private final ModalidadeRepository modalidadeRepository;
+    private final RelatorioClienteService relatorioService;
+    private final ClienteEstatisticasService estatisticas;
+    private final ApplicationEventPublisher events;
+    private final int maxIds;
+
+    public ClienteLoteService(ClienteRepository clienteRepository, ModalidadeRepository modalidadeRepository,
+                              RelatorioClienteService relatorioService, ClienteEstatisticasService estatisticas,
+                              ApplicationEventPublisher events,
+                              @Value("${app.lote.max-ids:100000}") int maxIds) {
+        this.clienteRepository = clienteRepository;
+        this.modalidadeRepository = modalidadeRepository;
+        this.relatorioService = relatorioService;
+        this.estatisticas = estatisticas;
+        this.events = events;
+        this.maxIds = maxIds;
+    }
+
+    @Transactional
+    public ClienteLoteResultadoDTO executar(ClienteLoteRequestDTO req) {
+        List<Long> ids = alvos(req);
+        String acao = req.acao();
+
+        int afetados = switch (acao) {
+            case "ativar", "desativar" -> {
+                boolean ativar = "ativar".equals(acao);
+                int n = emBlocos(ids, b -> clienteRepository.updateEnabled(b, ativar));
+                // só mudam as linhas que estavam no status oposto
+                estatisticas.aplicar(Map.of(
+                        new Chave(ClienteEstatisticasService.STATUS, String.valueOf(ativar)), (long) n,
+                        new Chave(ClienteEstatisticasService.STATUS, String.valueOf(!ativar)), (long) -n));
+                yield n;
+            }
+            case "atribuirModalidade" -> {
+                Long mid = modalidadeExistente(req.modalidadeId());
+                int n = emBlocos(ids, b -> clienteRepository.insertModalidade(b, mid));
+                estatisticas.aplicar(Map.of(new Chave(ClienteEstatisticasService.MODALIDADE, String.valueOf(mid)), (long) n));
+                yield n;
+            }
+            case "removerModalidade" -> {
+                Long mid = modalidadeExistente(req.modalidadeId());
+                int n = emBlocos(ids, b -> clienteRepository.deleteModalidade(b, mid));
+                estatisticas.aplicar(Map.of(new Chave(ClienteEstatisticasService.MODALIDADE, String.valueOf(mid)), (long) -n));
+                yield n;
+            }
+            case "excluir" -> emBlocos(ids, b -> {
+                estatisticas.aplicar(estatisticas.deltasRemocao(b));
+                // filhos primeiro (FKs), depois o cliente
+                clienteRepository.deleteModalidadesDe(b);
+                clienteRepository.deleteEnderecosDe(b);
+                return clienteRepository.deleteByIds(b);
+            });
+            default -> throw new IllegalArgumentException(
+                    "Ação inválida: use ativar, desativar, atribuirModalidade, removerModalidade ou excluir");
+        };
+
+        if (afetados > 0) events.publishEvent(new ClientesEmLoteEvent(ids, "excluir".equals(acao)));
+        return new ClienteLoteResultadoDTO(acao, ids.size(), afetados);
+    }
+
+    private List<Long> alvos(ClienteLoteRequestDTO req) {
+        boolean porIds = req.ids() != null && !req.ids().isEmpty();
+        if (porIds == (req.filtro() != null))
+            throw new IllegalArgumentException("Informe 'ids' ou 'filtro' (apenas um dos dois)");
+
+        List<Long> ids = porIds
+                ? new ArrayList<>(new LinkedHashSet<>(req.ids()))
+                : idsPorFiltro(req.filtro());
+        if (ids.size() > maxIds)
+            throw new IllegalArgumentException("Operação em lote limitada a " + maxIds + " clientes");
+        return ids;
+    }
+
+    // só os ids (sem carregar entidades), com o mesmo Specification do relatório
+    private List<Long> idsPorFiltro(RelatorioFiltroDTO f) {
+        Specification<Cliente> spec = relatorioService.especificacao(
+                f.ativos(), f.inativos(), f.idadeMin(), f.idadeMax(), f.modalidades(), f.match(), f.expressao());
+        return relatorioService.idsApos(spec, 0, maxIds + 1);
+    }
+
+    private Long modalidadeExistente(Long id) {
+        if (id == null) throw new IllegalArgumentException("Informe 'modalidadeId'");
+        if (!modalidadeRepository.existsById(id)) throw new EntityNotFoundException("Modalidade não encontrada");
+        return id;
+    }
+
+    private static int emBlocos(List<Long> ids, Function<List<Long>, Integer> op) {
+        int total = 0;
+        for (int i = 0; i < ids.size(); i += BLOCO) {
+            total += op.apply(ids.subList(i, Math.min(i + BLOCO, ids.size())));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,289 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.repository.ClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas sobre nome/email dos clientes, para responder ao "q" da listagem
+ * (substring e prefixo) sem o LIKE '%q%' que varre a tabela inteira.
+ * Reconstruído no startup; depois é mantido pelos ClienteAlteradoEvent.
+ */
+@Component
+public class ClienteSearchIndex implements MetricasProvider {
+    private static final Logger log = LoggerFactory.getLogger(ClienteSearchIndex.class);
+    private static final int CHUNK = 5_000;
+
+    public static final String SORT_RELEVANCIA = "relevancia";
+    /** Tamanho mínimo da busca: abaixo de um trigrama não há posting para cruzar, só varredura. */
+    public static final int MIN_BUSCA = 3;
+
+    private record Doc(String nome, String email, String nomeNorm, String emailNorm, LocalDate dataNascimento) {}
+
+    private final ClienteRepository repo;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private Map<Long, Doc> docs = new HashMap<>();
+    private long postingEntries;
+
+    // eventos recebidos durante o rebuild são reaplicados depois da troca
+    private boolean rebuilding;
+    private final List<ClienteAlteradoEvent> pendentes = new ArrayList<>();
+    private volatile boolean ready;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder candidatosVerificados = new LongAdder();
+    private volatile Instant ultimoRebuild;
+    private volatile long ultimoRebuildMs;
+
+    public ClienteSearchIndex(ClienteRepository repo,
+                              @Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.repo = repo;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() { return enabled && ready; }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!enabled) return;
+        Thread t = new Thread(this::rebuild, "cliente-search-index");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public void rebuild() {
+        long t0 = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try { rebuilding = true; } finally { lock.writeLock().unlock(); }
+
+        Map<String, Set<Long>> novosPostings = new HashMap<>();
+        Map<Long, Doc> novosDocs = new HashMap<>();
+        long entries = 0;
+        try {
+            long afterId = 0;
+            List<Object[]> chunk;
+            do {
+                chunk = repo.findIndexChunk(afterId, PageRequest.of(0, CHUNK));
+                for (Object[] row : chunk) {
+                    Long id = (Long) row[0];
+                    Doc doc = doc((String) row[1], (String) row[2], (LocalDate) row[3]);
+                    novosDocs.put(id, doc);
+                    entries += addGrams(novosPostings, id, doc);
+                    afterId = id;
+                }
+            } while (chunk.size() == CHUNK);
+        } catch (RuntimeException e) {
+            log.error("Falha ao reconstruir índice de busca de clientes; usando LIKE no banco", e);
+            lock.writeLock().lock();
+            try { rebuilding = false; pendentes.clear(); } finally { lock.writeLock().unlock(); }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = novosPostings;
+            docs = novosDocs;
+            postingEntries = entries;
+            rebuilding = false;
+            pendentes.forEach(this::apply);
+            pendentes.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ultimoRebuild = Instant.now();
+        ultimoRebuildMs = System.currentTimeMillis() - t0;
+        log.info("Índice de busca de clientes pronto: {} documentos em {} ms", novosDocs.size(), ultimoRebuildMs);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent e) {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) pendentes.add(e);
+            else apply(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesEmLote(ClientesEmLoteEvent e) {
+        if (!enabled || !e.removidos()) return;
+        lock.writeLock().lock();
+        try {
+            for (Long id : e.ids()) {
+                var ev = ClienteAlteradoEvent.removido(id);
+                if (rebuilding) pendentes.add(ev);
+                else apply(ev);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // chamado com o write lock
+    private void apply(ClienteAlteradoEvent e) {
+        Doc old = docs.remove(e.id());
+        if (old != null) postingEntries -= removeGrams(e.id(), old);
+        if (!e.removido()) {
+            Doc doc = doc(e.nome(), e.email(), e.dataNascimento());
+            docs.put(e.id(), doc);
+            postingEntries += addGrams(postings, e.id(), doc);
+        }
+    }
+
+    /**
+     * Ids que contêm {@code q} no nome ou email, já ordenados por {@code sortBy} (ou por relevância).
+     * Vazio quando o índice não pode responder (ainda carregando ou ordenação não indexada).
+     */
+    public Optional<List<Long>> buscar(String q, String sortBy, boolean desc) {
+        if (!isReady()) return Optional.empty();
+        String qn = normalize(q);
+        Comparator<Map.Entry<Long, Doc>> order = comparator(sortBy, qn);
+        if (order == null) return Optional.empty();
+        consultas.increment();
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidatos = candidatos(qn);
+            candidatosVerificados.add(candidatos.size());
+            List<Map.Entry<Long, Doc>> hits = new ArrayList<>();
+            for (Long id : candidatos) {
+                Doc d = docs.get(id);
+                if (d != null && (d.nomeNorm().contains(qn) || d.emailNorm().contains(qn)))
+                    hits.add(Map.entry(id, d));
+            }
+            hits.sort(desc && !SORT_RELEVANCIA.equals(sortBy) ? order.reversed() : order);
+            return Optional.of(hits.stream().map(Map.Entry::getKey).toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // interseção das listas de postings (menor primeiro); consulta curta não varre os documentos
+    private Collection<Long> candidatos(String qn) {
+        if (qn.length() < MIN_BUSCA) return List.of();
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String g : grams(qn)) {
+            Set<Long> p = postings.get(g);
+            if (p == null) return List.of();
+            listas.add(p);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        Set<Long> out = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !out.isEmpty(); i++) out.retainAll(listas.get(i));
+        return out;
+    }
+
+    private static Comparator<Map.Entry<Long, Doc>> comparator(String sortBy, String qn) {
+        Comparator<Map.Entry<Long, Doc>> byId = Map.Entry.comparingByKey();
+        String prop = (sortBy == null || sortBy.isBlank()) ? "nome" : sortBy;
+        return switch (prop) {
+            case "nome" -> Comparator.<Map.Entry<Long, Doc>, String>comparing(e -> e.getValue().nomeNorm()).thenComparing(byId);
+            case "email" -> Comparator.<Map.Entry<Long, Doc>, String>comparing(e -> e.getValue().emailNorm()).thenComparing(byId);
+            case "dataNascimento" -> Comparator.<Map.Entry<Long, Doc>, LocalDate>comparing(
+                    e -> e.getValue().dataNascimento(), Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(byId);
+            case "id" -> byId;
+            case SORT_RELEVANCIA -> Comparator.<Map.Entry<Long, Doc>>comparingInt(e -> rank(e.getValue(), qn))
+                    .thenComparing(e -> e.getValue().nomeNorm()).thenComparing(byId);
+            default -> null;
+        };
+    }
+
+    // 0 = nome começa com q, 1 = email começa com q, 2 = alguma palavra do nome começa com q, 3/4 = contém
+    private static int rank(Doc d, String qn) {
+        if (d.nomeNorm().startsWith(qn)) return 0;
+        if (d.emailNorm().startsWith(qn)) return 1;
+        if (d.nomeNorm().contains(" " + qn)) return 2;
+        return d.nomeNorm().contains(qn) ? 3 : 4;
+    }
+
+    private static Doc doc(String nome, String email, LocalDate dataNascimento) {
+        return new Doc(nome, email, normalize(nome), normalize(email), dataNascimento);
+    }
+
+    private static int addGrams(Map<String, Set<Long>> target, Long id, Doc d) {
+        int added = 0;
+        for (String g : grams(d)) {
+            if (target.computeIfAbsent(g, k -> new HashSet<>()).add(id)) added++;
+        }
+        return added;
+    }
+
+    private int removeGrams(Long id, Doc d) {
+        int removed = 0;
+        for (String g : grams(d)) {
+            Set<Long> p = postings.get(g);
+            if (p != null && p.remove(id)) {
+                removed++;
+                if (p.isEmpty()) postings.remove(g);
+            }
+        }
+        return removed;
+    }
+
+    private static Set<String> grams(Doc d) {
+        Set<String> out = grams(d.nomeNorm());
+        out.addAll(grams(d.emailNorm()));
+        return out;
+    }
+
+    private static Set<String> grams(String s) {
+        Set<String> out = new HashSet<>();
+        for (int i = 0; i + 3 <= s.length(); i++) out.add(s.substring(i, i + 3));
+        return out;
+    }
+
+    // minúsculas e sem acentos, como a collation *_ai_ci do MySQL
+    static String normalize(String s) {
+        if (s == null) return "";
+        return Normalizer.normalize(s.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String nomeMetricas() { return "clienteSearchIndex"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            long chars = 0;
+            for (Doc d : docs.values()) chars += d.nomeNorm().length() + d.emailNorm().length();
+            m.put("pronto", isReady());
+            m.put("documentos", docs.size());
+            m.put("trigramas", postings.size());
+            m.put("entradasPostings", postingEntries);
+            // estimativa grosseira: nó de HashSet + Long boxed por entrada, strings originais + normalizadas
+            m.put("memoriaEstimadaBytes", postingEntries * 48 + postings.size() * 120L
+                    + docs.size() * 160L + chars * 4);
+        } finally {
+            lock.readLock().unlock();
+        }
+        m.put("consultas", consultas.sum());
+        m.put("candidatosVerificados", candidatosVerificados.sum());
+        m.put("ultimoRebuild", ultimoRebuild);
+        m.put("ultimoRebuildMs", ultimoRebuildMs);
+        return m;
+    }
+}
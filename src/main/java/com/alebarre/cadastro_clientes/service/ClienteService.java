@@ -1,21 +1,29 @@
 package com.alebarre.cadastro_clientes.service;
 
 import com.alebarre.cadastro_clientes.DTO.*;
+import com.alebarre.cadastro_clientes.cache.Versionado;
 import com.alebarre.cadastro_clientes.domain.Cliente;
 import com.alebarre.cadastro_clientes.domain.Endereco;
 import com.alebarre.cadastro_clientes.repository.ClienteRepository;
 
 import com.alebarre.cadastro_clientes.repository.ModalidadeRepository;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.validation.ValidationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -23,10 +31,25 @@ import java.util.stream.Collectors;
 public class ClienteService {
     private final ClienteRepository clienteRepository;
     private final ModalidadeRepository modalidadeRepository;
-
-    public ClienteService(ClienteRepository clienteRepository, ModalidadeRepository modalidadeRepository) {
+    private final ClienteSearchIndex searchIndex;
+    private final ClienteDetalheCache detalheCache;
+    private final ClienteCountCache countCache;
+    private final ClienteEmailFilter emailFilter;
+    private final ClienteEstatisticasService estatisticas;
+    private final ApplicationEventPublisher events;
+
+    public ClienteService(ClienteRepository clienteRepository, ModalidadeRepository modalidadeRepository,
+                          ClienteSearchIndex searchIndex, ClienteDetalheCache detalheCache,
+                          ClienteCountCache countCache, ClienteEmailFilter emailFilter,
+                          ClienteEstatisticasService estatisticas, ApplicationEventPublisher events) {
         this.clienteRepository = clienteRepository;
         this.modalidadeRepository = modalidadeRepository;
+        this.searchIndex = searchIndex;
+        this.detalheCache = detalheCache;
+        this.countCache = countCache;
+        this.emailFilter = emailFilter;
+        this.estatisticas = estatisticas;
+        this.events = events;
     }
 
 
@@ -66,25 +89,129 @@ public class ClienteService {
         int s = size == null || size <= 0 ? 10 : size;
         String prop = (sortBy == null || sortBy.isBlank()) ? "nome" : sortBy;
         Sort.Direction d = "desc".equalsIgnoreCase(dir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        // com "q", o índice de trigramas resolve os ids e só a página pedida é hidratada
+        validarBusca(q);
+        if (q != null && !q.isBlank()) {
+            var ids = searchIndex.buscar(q, prop, d == Sort.Direction.DESC);
+            if (ids.isPresent()) {
+                List<Long> all = ids.get();
+                int from = (int) Math.min((long) p * s, all.size());
+                int to = Math.min(from + s, all.size());
+                return new PageImpl<>(clienteRepository.findSummariesOrdered(all.subList(from, to)),
+                        PageRequest.of(p, s, Sort.by(d, prop)), all.size());
+            }
+        }
+        if (ClienteSearchIndex.SORT_RELEVANCIA.equals(prop)) prop = "nome";
         Pageable pageable = PageRequest.of(p, s, Sort.by(d, prop));
 
-        Page<Cliente> result = (q == null || q.isBlank())
-                ? clienteRepository.findAll(pageable)
-                : clienteRepository.findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, pageable);
+        // projeção em SQL: página + COUNT, independente do tamanho da página
+        return (q == null || q.isBlank())
+                ? clienteRepository.findSummaryPage(pageable)
+                : clienteRepository.searchSummaryPage(q.trim(), pageable);
+    }
 
-        return result.map(ClienteSummaryDTO::fromEntity);
+    /**
+     * Como listPaged, mas sem COUNT: devolve só se há próxima página. Com {@code comTotal}, anexa o
+     * total em cache (aproximado, recalculado em segundo plano).
+     */
+    @Transactional(readOnly = true)
+    public SliceDTO<ClienteSummaryDTO> listSlice(Integer page, Integer size, String sortBy, String dir, String q,
+                                                 boolean comTotal) {
+        int p = page == null || page < 0 ? 0 : page;
+        int s = size == null || size <= 0 ? 10 : size;
+        String prop = (sortBy == null || sortBy.isBlank()) ? "nome" : sortBy;
+        Sort.Direction d = "desc".equalsIgnoreCase(dir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        boolean busca = q != null && !q.isBlank();
+        validarBusca(q);
+
+        if (busca) {
+            var ids = searchIndex.buscar(q, prop, d == Sort.Direction.DESC);
+            if (ids.isPresent()) {
+                // o índice já sabe o total exato, sem custo extra
+                List<Long> all = ids.get();
+                int from = (int) Math.min((long) p * s, all.size());
+                int to = Math.min(from + s, all.size());
+                var content = clienteRepository.findSummariesOrdered(all.subList(from, to));
+                return new SliceDTO<>(content, p, s, to < all.size(),
+                        comTotal ? (long) all.size() : null, comTotal ? Instant.now() : null);
+            }
+        }
+        if (ClienteSearchIndex.SORT_RELEVANCIA.equals(prop)) prop = "nome";
+        Pageable pageable = PageRequest.of(p, s, Sort.by(d, prop));
+        Slice<ClienteSummaryDTO> slice = busca
+                ? clienteRepository.searchSummarySlice(q.trim(), pageable)
+                : clienteRepository.findSummarySlice(pageable);
+
+        ClienteCountCache.Contagem total = comTotal ? countCache.total(q) : null;
+        return new SliceDTO<>(slice.getContent(), p, s, slice.hasNext(),
+                total == null ? null : total.total(), total == null ? null : total.calculadoEm());
+    }
+
+    /**
+     * Paginação keyset (sem OFFSET nem COUNT): filtra pela chave (campo de ordenação + id) da última
+     * linha vista, então o custo não cresce com a profundidade da página.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ClienteSummaryDTO> listCursor(Integer size, String sortBy, String dir, String q,
+                                                        String after, String before) {
+        int s = size == null || size <= 0 ? 10 : Math.min(size, 200);
+        String prop = (sortBy == null || sortBy.isBlank()) ? "nome" : sortBy;
+        if (!ClienteCursor.SORTS.contains(prop))
+            throw new IllegalArgumentException("Ordenação não suportada no modo cursor: " + prop);
+        String d = "desc".equalsIgnoreCase(dir) ? "desc" : "asc";
+        if (after != null && before != null)
+            throw new IllegalArgumentException("Informe apenas 'after' ou 'before'");
+
+        String token = after != null ? after : before;
+        ClienteCursor ref = token == null ? null : ClienteCursor.decode(token);
+        if (ref != null && (!ref.sort().equals(prop) || !ref.dir().equals(d)))
+            throw new IllegalArgumentException("Cursor não corresponde à ordenação informada");
+
+        boolean backward = before != null;
+        // ao voltar, percorre na ordem inversa e depois desinverte o resultado
+        boolean asc = "asc".equals(d) != backward;
+        Sort.Direction sd = asc ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = "id".equals(prop) ? Sort.by(sd, "id") : Sort.by(sd, prop).and(Sort.by(sd, "id"));
+
+        Specification<Cliente> spec = (root, query, cb) -> cb.conjunction();
+        if (q != null && !q.isBlank()) spec = spec.and(nomeOuEmailContem(q));
+        if (ref != null) spec = spec.and(aposCursor(prop, asc, ref.valor(), ref.id()));
+
+        List<Cliente> rows = clienteRepository.findBy(spec, fq -> fq.sortBy(sort).limit(s + 1).all());
+        boolean more = rows.size() > s;
+        List<Cliente> pageRows = new ArrayList<>(more ? rows.subList(0, s) : rows);
+        if (backward) Collections.reverse(pageRows);
+
+        boolean hasNext = backward ? ref != null : more;
+        boolean hasPrevious = backward ? more : ref != null;
+        String next = hasNext && !pageRows.isEmpty() ? cursorDe(prop, d, pageRows.get(pageRows.size() - 1)) : null;
+        String previous = hasPrevious && !pageRows.isEmpty() ? cursorDe(prop, d, pageRows.get(0)) : null;
+
+        var content = clienteRepository.findSummariesOrdered(pageRows.stream().map(Cliente::getId).toList());
+        return new CursorPageDTO<>(content, s, hasNext, hasPrevious, next, previous);
     }
 
     public ClienteResponseDTO find(Long id) {
-        Cliente c = clienteRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado"));
-        return toResponse(c);
+        return findVersionado(id).valor();
+    }
+
+    /** Detalhe com ETag; servido do cache (sem ir ao banco) enquanto o cliente não for alterado. */
+    @Transactional(readOnly = true)
+    public Versionado<ClienteResponseDTO> findVersionado(Long id) {
+        return detalheCache.detalhes().get(id, k -> {
+            Cliente c = clienteRepository.findById(k).orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado"));
+            return Versionado.of(toResponse(c));
+        });
     }
 
     @Transactional
     public ClienteResponseDTO create(ClienteRequestDTO req) {
         if (clienteRepository.existsByEmail(req.email())) throw new ValidationException("Email já cadastrado");
-        Cliente c = fromRequest(new Cliente(), req);
-        return toResponse(clienteRepository.save(c));
+        Cliente c = clienteRepository.save(fromRequest(new Cliente(), req));
+        estatisticas.aplicar(Set.of(), ClienteEstatisticasService.chavesDe(c));
+        events.publishEvent(ClienteAlteradoEvent.salvo(c));
+        return toResponse(c);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -96,15 +223,21 @@ public class ClienteService {
         if (!c.getEmail().equals(req.email()) && clienteRepository.existsByEmail(req.email())) {
             throw new ValidationException("Email já cadastrado");
         }
+        var antes = ClienteEstatisticasService.chavesDe(c);
         fromRequest(c, req);
-        return toResponse(clienteRepository.save(c));
+        c = clienteRepository.save(c);
+        estatisticas.aplicar(antes, ClienteEstatisticasService.chavesDe(c));
+        events.publishEvent(ClienteAlteradoEvent.salvo(c));
+        return toResponse(c);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
     public void delete(Long id) {
-        if (!clienteRepository.existsById(id)) throw new EntityNotFoundException("Cliente não encontrado");
-        clienteRepository.deleteById(id);
+        Cliente c = clienteRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado"));
+        estatisticas.aplicar(ClienteEstatisticasService.chavesDe(c), Set.of());
+        clienteRepository.delete(c);
+        events.publishEvent(ClienteAlteradoEvent.removido(id));
     }
 
     @Transactional(readOnly = true)
@@ -114,20 +247,115 @@ public class ClienteService {
                 .toList();
     }
 
-    @Transactional
+    // sem transação própria: negativo do filtro responde sem consulta; só o "talvez" vai ao banco
     public Boolean getByEmail(String email) {
-        return clienteRepository.existsByEmail(email);
+        if (!emailFilter.talvezExista(email)) return false;
+        boolean existe = clienteRepository.existsByEmail(email);
+        emailFilter.registrarConfirmacao(existe);
+        return existe;
+    }
+
+    /** Versão em lote: uma única consulta para todos os "talvez". Chave = e-mail normalizado. */
+    public Map<String, Boolean> verificarEmails(List<String> emails) {
+        Map<String, Boolean> out = new LinkedHashMap<>();
+        List<String> talvez = new ArrayList<>();
+        for (String e : emails) {
+            String email = ClienteEmailFilter.normalizar(e);
+            if (email.isEmpty() || out.containsKey(email)) continue;
+            boolean t = emailFilter.talvezExista(email);
+            out.put(email, false);
+            if (t) talvez.add(email);
+        }
+        if (!talvez.isEmpty()) {
+            Set<String> existentes = clienteRepository.findExistingEmails(talvez).stream()
+                    .map(ClienteEmailFilter::chaveComparacao) // mesma comparação da collation do banco
+                    .collect(Collectors.toSet());
+            for (String email : talvez) {
+                boolean existe = existentes.contains(ClienteEmailFilter.chaveComparacao(email));
+                emailFilter.registrarConfirmacao(existe);
+                out.put(email, existe);
+            }
+        }
+        return out;
     }
 
-    @Transactional(readOnly = true)
     public ClienteCardDTO obterCard(Long id) {
-        var c = clienteRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado"));
-        return ClienteCardDTO.fromEntity(c);
+        return obterCardVersionado(id).valor();
+    }
+
+    @Transactional(readOnly = true)
+    public Versionado<ClienteCardDTO> obterCardVersionado(Long id) {
+        return detalheCache.cards().get(id, k -> {
+            var c = clienteRepository.findById(k)
+                    .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado"));
+            return Versionado.of(ClienteCardDTO.fromEntity(c));
+        });
+    }
+
+    // ===== keyset =====
+    // 1-2 letras não têm trigrama: seriam varredura completa no índice e LIKE '%q%' no banco
+    private static void validarBusca(String q) {
+        if (q != null && !q.isBlank() && ClienteSearchIndex.normalize(q).length() < ClienteSearchIndex.MIN_BUSCA)
+            throw new IllegalArgumentException("Busca precisa de ao menos " + ClienteSearchIndex.MIN_BUSCA + " caracteres");
+    }
+
+    private static Specification<Cliente> nomeOuEmailContem(String q) {
+        String like = "%" + q.trim().toLowerCase() + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("nome")), like),
+                cb.like(cb.lower(root.get("email")), like));
+    }
+
+    /**
+     * Linhas estritamente depois de (valor, id) na ordem percorrida. Segue a ordem de nulos do MySQL:
+     * NULL é o menor valor (primeiro no ASC, último no DESC) — só ocorre em dataNascimento.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Cliente> aposCursor(String prop, boolean asc, Object valor, Long id) {
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idApos = asc ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            if ("id".equals(prop)) return idApos;
+
+            Path k = root.get(prop);
+            if (valor == null) {
+                return asc ? cb.or(cb.and(cb.isNull(k), idApos), cb.isNotNull(k))
+                        : cb.and(cb.isNull(k), idApos);
+            }
+            Comparable v = (Comparable) valor;
+            Predicate chaveApos = asc ? cb.greaterThan(k, v) : cb.lessThan(k, v);
+            Predicate empate = cb.and(cb.equal(k, v), idApos);
+            return asc ? cb.or(chaveApos, empate) : cb.or(chaveApos, empate, cb.isNull(k));
+        };
+    }
+
+    private static String cursorDe(String prop, String dir, Cliente c) {
+        Object valor = switch (prop) {
+            case "nome" -> c.getNome();
+            case "email" -> c.getEmail();
+            case "dataNascimento" -> c.getDataNascimento();
+            default -> c.getId();
+        };
+        return new ClienteCursor(prop, dir, valor, c.getId()).encode();
     }
 
     // ===== mapeamento =====
     private Cliente fromRequest(Cliente c, ClienteRequestDTO req) {
+        preencherDados(c, req);
+
+        // Modalidades ---
+        // permite 0..5 (null tratado como vazio)
+        List<Long> ids = (req.modalidadeIds() == null) ? Collections.emptyList() : req.modalidadeIds();
+
+        validarModalidades(ids);
+        c.setModalidades(carregarModalidades(ids));
+
+        return c;
+
+    }
+
+    /** Campos e endereços do request (modalidades à parte). Também usado pela importação em lote. */
+    static void preencherDados(Cliente c, ClienteRequestDTO req) {
         if (req.enderecos() == null || req.enderecos().isEmpty())
             throw new ValidationException("Informe ao menos 1 endereço");
         if (req.enderecos().size() > 2)
@@ -154,16 +382,6 @@ public class ClienteService {
             return e;
         }).toList();
         c.setEnderecos(ends);
-
-        // Modalidades ---
-        // permite 0..5 (null tratado como vazio)
-        List<Long> ids = (req.modalidadeIds() == null) ? Collections.emptyList() : req.modalidadeIds();
-
-        validarModalidades(ids);
-        c.setModalidades(carregarModalidades(ids));
-
-        return c;
-
     }
 
     private ClienteResponseDTO toResponse(Cliente c) {
@@ -181,6 +399,16 @@ public class ClienteService {
 
     private void validarModalidades(List<Long> ids) {
         if (ids == null) return; // trate null como "nenhuma selecionada"
+        Set<Long> distintos = validarRegrasModalidades(ids);
+        // existência
+        long count = modalidadeRepository.countByIdIn(distintos); // veja nota abaixo
+        if (count != distintos.size()) {
+            throw new ValidationException("Uma ou mais modalidades não existem.");
+        }
+    }
+
+    /** Limite e duplicidade (sem ir ao banco); devolve os ids distintos. */
+    static Set<Long> validarRegrasModalidades(List<Long> ids) {
         // limite já está no DTO com @Size(max=5), mas mantemos robustez aqui:
         if (ids.size() > 5) {
             throw new ValidationException("Máximo de 5 modalidades por cliente.");
@@ -190,11 +418,7 @@ public class ClienteService {
         if (distintos.size() != ids.size()) {
             throw new ValidationException("Modalidades duplicadas não são permitidas.");
         }
-        // existência
-        long count = modalidadeRepository.countByIdIn(distintos); // veja nota abaixo
-        if (count != distintos.size()) {
-            throw new ValidationException("Uma ou mais modalidades não existem.");
-        }
+        return distintos;
     }
 
     /**
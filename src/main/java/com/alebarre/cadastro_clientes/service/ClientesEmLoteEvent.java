@@ -0,0 +1,9 @@
+package com.alebarre.cadastro_clientes.service;
+
+import java.util.Collection;
+
+/**
+ * Publicado pelas operações em lote (SQL direto, sem passar pelas entidades). Nome/email não mudam
+ * nessas operações, então o índice de busca só reage quando os clientes são removidos.
+ */
+public record ClientesEmLoteEvent(Collection<Long> ids, boolean removidos) {}
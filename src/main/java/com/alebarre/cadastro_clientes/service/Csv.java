@@ -0,0 +1,61 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV com ';' (abre direto no Excel pt-BR); aspas só quando necessário
+final class Csv {
+    static final char SEP = ';';
+
+    static final String SUMMARY_HEADER =
+            "id;nome;enabled;email;telefone;cidades;quantidadeModalidades;dataNascimento";
+
+    private Csv() {}
+
+    static String escape(Object v) {
+        if (v == null) return "";
+        String s = v.toString();
+        if (s.indexOf(SEP) < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    static String line(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(SEP);
+            sb.append(escape(values[i]));
+        }
+        return sb.append('\n').toString();
+    }
+
+    /** Divide uma linha respeitando aspas ("" dentro de aspas = aspas literal). */
+    static List<String> parseLine(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') { cur.append('"'); i++; }
+                else if (ch == '"') quoted = false;
+                else cur.append(ch);
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == SEP) {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        out.add(cur.toString());
+        return out;
+    }
+
+    static String summaryLine(ClienteSummaryDTO c) {
+        return line(c.id(), c.nome(), c.enabled(), c.email(), c.telefone(),
+                c.enderecosResumo(), c.quantidadeModalidades(), c.dataNascimento());
+    }
+}
@@ -0,0 +1,343 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.domain.Cliente;
+import com.alebarre.cadastro_clientes.domain.Endereco;
+import com.alebarre.cadastro_clientes.domain.Modalidade;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Filtro textual no estilo RSQL para os relatórios, ex.: {@code enabled==true;idade=ge=18;modalidade=in=(1,3);uf==SP}.
+ * ';' = E, ',' = OU, parênteses agrupam. Só os campos de {@link Campo} entram, texto só aceita prefixo ("Ana*")
+ * e o número de comparações é limitado. Comparações sem índice próprio ({@code enabled}, {@code cidade},
+ * {@code !=} e {@code =out=}, que viram anti-join) só refinam: a expressão precisa de ao menos uma comparação
+ * indexada em AND (ou em todos os ramos de um OU). O timeout das consultas de relatório é a última barreira.
+ */
+public record FiltroExpressao(Specification<Cliente> spec, String canonica, int predicados, boolean dependeDeHoje) {
+
+    public static final int MAX_TAMANHO = 1000;
+    public static final int MAX_VALORES = 100;
+
+    enum Op {
+        EQ("=="), NE("!="), GT("=gt="), GE("=ge="), LT("=lt="), LE("=le="), IN("=in="), OUT("=out=");
+
+        final String simbolo;
+
+        Op(String simbolo) { this.simbolo = simbolo; }
+
+        static Op of(String s) {
+            for (Op o : values()) if (o.simbolo.equals(s)) return o;
+            throw new IllegalArgumentException("Operador desconhecido: " + s);
+        }
+    }
+
+    private static final Set<Op> COMPARACAO = EnumSet.of(Op.EQ, Op.NE, Op.GT, Op.GE, Op.LT, Op.LE, Op.IN, Op.OUT);
+    private static final Set<Op> IGUALDADE = EnumSet.of(Op.EQ, Op.NE, Op.IN, Op.OUT);
+
+    /** Campos permitidos. Índices: PK, únicos, (nome,id), (data_nascimento,id), (aniversario_md,id), junções; enabled e cidade não. */
+    enum Campo {
+        ID(COMPARACAO), NOME(EnumSet.of(Op.EQ, Op.IN)), EMAIL(EnumSet.of(Op.EQ, Op.IN)), ENABLED(EnumSet.of(Op.EQ, Op.NE)),
+        DATANASCIMENTO(COMPARACAO), IDADE(EnumSet.of(Op.EQ, Op.GT, Op.GE, Op.LT, Op.LE)), ANIVERSARIO(COMPARACAO),
+        MODALIDADE(IGUALDADE), UF(IGUALDADE), CIDADE(EnumSet.of(Op.EQ, Op.IN));
+
+        final Set<Op> ops;
+
+        Campo(Set<Op> ops) { this.ops = ops; }
+
+        static Campo of(String s) {
+            for (Campo c : values()) if (c.name().equalsIgnoreCase(s)) return c;
+            throw new IllegalArgumentException("Campo não permitido no filtro: " + s
+                    + " (use id, nome, email, enabled, dataNascimento, idade, aniversario, modalidade, uf, cidade)");
+        }
+    }
+
+    /** Converte a expressão; erro de sintaxe ou limite excedido = IllegalArgumentException (400). */
+    public static FiltroExpressao parse(String expr, int maxPredicados) {
+        if (expr == null || expr.isBlank()) return null;
+        if (expr.length() > MAX_TAMANHO) throw new IllegalArgumentException("Filtro muito longo (máx. " + MAX_TAMANHO + ")");
+        Parser p = new Parser(expr, maxPredicados);
+        No no = p.ou();
+        p.espacos();
+        if (p.pos < expr.length()) throw p.erro("fim da expressão");
+        if (!no.indexada())
+            throw new IllegalArgumentException("Filtro precisa de ao menos uma comparação indexada "
+                    + "(enabled, cidade, != e =out= só refinam outra comparação)");
+        return new FiltroExpressao(no.spec(), no.canonica(), p.predicados, p.dependeDeHoje);
+    }
+
+    // ===== AST =====
+
+    private sealed interface No permits Comparacao, Grupo {
+        Specification<Cliente> spec();
+        String canonica();
+        /** true = o banco consegue restringir as linhas por índice (não vira varredura completa). */
+        boolean indexada();
+    }
+
+    private record Grupo(boolean e, List<No> filhos) implements No {
+        public Specification<Cliente> spec() {
+            Specification<Cliente> s = filhos.get(0).spec();
+            for (int i = 1; i < filhos.size(); i++) s = e ? s.and(filhos.get(i).spec()) : s.or(filhos.get(i).spec());
+            return s;
+        }
+
+        // E: basta um filho indexado; OU: todos os ramos precisam ser
+        public boolean indexada() {
+            return e ? filhos.stream().anyMatch(No::indexada) : filhos.stream().allMatch(No::indexada);
+        }
+
+        public String canonica() {
+            StringJoiner j = new StringJoiner(e ? ";" : ",", "(", ")");
+            filhos.forEach(f -> j.add(f.canonica()));
+            return j.toString();
+        }
+    }
+
+    private record Comparacao(Campo campo, Op op, List<String> valores) implements No {
+        // valores sempre entre aspas (com escape): ("a,b") e (a,b) geram chaves de cache diferentes
+        public String canonica() {
+            StringJoiner j = new StringJoiner(",", "(", ")");
+            valores.forEach(v -> j.add('"' + v.replace("\\", "\\\\").replace("\"", "\\\"") + '"'));
+            return campo.name().toLowerCase(Locale.ROOT) + op.simbolo + j;
+        }
+
+        public boolean indexada() {
+            return campo != Campo.ENABLED && campo != Campo.CIDADE && op != Op.NE && op != Op.OUT;
+        }
+
+        public Specification<Cliente> spec() {
+            return switch (campo) {
+                case ID -> comparar("id", valores.stream().map(Long::valueOf).toList());
+                case NOME -> texto("nome");
+                case EMAIL -> texto("email");
+                case ENABLED -> {
+                    boolean b = booleano(valores.get(0));
+                    yield (root, q, cb) -> cb.equal(root.get("enabled"), op == Op.EQ ? b : !b);
+                }
+                case DATANASCIMENTO -> comparar("dataNascimento", valores.stream().map(LocalDate::parse).toList());
+                case ANIVERSARIO -> comparar("aniversarioMd", valores.stream().map(Comparacao::mmdd).toList());
+                case IDADE -> idade(Integer.parseInt(valores.get(0)));
+                case MODALIDADE -> existe(valores.stream().map(Long::valueOf).toList(), true);
+                case UF -> existe(valores.stream().map(v -> v.toUpperCase(Locale.ROOT)).toList(), false);
+                case CIDADE -> (root, q, cb) -> {
+                    Subquery<Long> sq = q.subquery(Long.class);
+                    Root<Endereco> e = sq.from(Endereco.class);
+                    sq.select(e.get("id")).where(cb.equal(e.get("cliente"), root), e.get("cidade").in(valores));
+                    return cb.exists(sq);
+                };
+            };
+        }
+
+        private <T extends Comparable<? super T>> Specification<Cliente> comparar(String atributo, List<T> vs) {
+            return (root, q, cb) -> {
+                Path<T> p = root.get(atributo);
+                T v = vs.get(0);
+                return switch (op) {
+                    case EQ -> cb.equal(p, v);
+                    case NE -> cb.notEqual(p, v);
+                    case GT -> cb.greaterThan(p, v);
+                    case GE -> cb.greaterThanOrEqualTo(p, v);
+                    case LT -> cb.lessThan(p, v);
+                    case LE -> cb.lessThanOrEqualTo(p, v);
+                    case IN -> p.in(vs);
+                    case OUT -> cb.not(p.in(vs));
+                };
+            };
+        }
+
+        // "Ana*" = prefixo (usa o índice); curinga no início ou no meio não é aceito
+        private Specification<Cliente> texto(String atributo) {
+            for (String v : valores) {
+                int i = v.indexOf('*');
+                if (i == 0 || (i > 0 && i != v.length() - 1))
+                    throw new IllegalArgumentException("Curinga só no fim do valor (prefixo): " + v);
+            }
+            return (root, q, cb) -> {
+                Path<String> p = root.get(atributo);
+                List<jakarta.persistence.criteria.Predicate> ps = valores.stream()
+                        .map(v -> v.endsWith("*")
+                                ? cb.like(p, v.substring(0, v.length() - 1).replace("%", "\\%").replace("_", "\\_") + "%", '\\')
+                                : cb.equal(p, v))
+                        .toList();
+                return ps.size() == 1 ? ps.get(0) : cb.or(ps.toArray(new jakarta.persistence.criteria.Predicate[0]));
+            };
+        }
+
+        // idade relativa a hoje, convertida em faixa de dataNascimento (mesma regra do faixaEtaria)
+        private Specification<Cliente> idade(int anos) {
+            return (root, q, cb) -> {
+                Path<LocalDate> d = root.get("dataNascimento");
+                LocalDate hoje = LocalDate.now();
+                LocalDate maisNovo = hoje.minusYears(anos);                   // nascido até aqui => idade >= anos
+                LocalDate maisVelho = hoje.minusYears(anos + 1L).plusDays(1); // nascido a partir daqui => idade <= anos
+                return switch (op) {
+                    case EQ -> cb.between(d, maisVelho, maisNovo);
+                    case GE -> cb.lessThanOrEqualTo(d, maisNovo);
+                    case GT -> cb.lessThan(d, maisVelho);
+                    case LE -> cb.greaterThanOrEqualTo(d, maisVelho);
+                    case LT -> cb.greaterThan(d, maisNovo);
+                    default -> throw new IllegalArgumentException("Operador não suportado para idade: " + op.simbolo);
+                };
+            };
+        }
+
+        // modalidade/uf: (NOT) EXISTS correlacionado, servido pelos índices das tabelas de junção/endereço
+        private Specification<Cliente> existe(List<?> vs, boolean modalidade) {
+            return (root, q, cb) -> {
+                Subquery<Long> sq = q.subquery(Long.class);
+                if (modalidade) {
+                    Root<Cliente> c = sq.correlate(root);
+                    Join<Cliente, Modalidade> m = c.join("modalidades");
+                    sq.select(m.get("id")).where(m.get("id").in(vs));
+                } else {
+                    Root<Endereco> e = sq.from(Endereco.class);
+                    sq.select(e.get("id")).where(cb.equal(e.get("cliente"), root), e.get("uf").in(vs));
+                }
+                jakarta.persistence.criteria.Predicate ex = cb.exists(sq);
+                return (op == Op.NE || op == Op.OUT) ? cb.not(ex) : ex;
+            };
+        }
+
+        private static boolean booleano(String v) {
+            if ("true".equalsIgnoreCase(v)) return true;
+            if ("false".equalsIgnoreCase(v)) return false;
+            throw new IllegalArgumentException("Valor booleano inválido: " + v);
+        }
+
+        // "MM-DD" ou "MMDD" -> MMDD
+        private static Integer mmdd(String v) {
+            String s = v.replace("-", "");
+            int n = Integer.parseInt(s);
+            if (s.length() != 4 || n / 100 < 1 || n / 100 > 12 || n % 100 < 1 || n % 100 > 31)
+                throw new IllegalArgumentException("Aniversário inválido (use MM-DD): " + v);
+            return n;
+        }
+    }
+
+    // ===== Parser (descida recursiva) =====
+
+    private static final class Parser {
+        final String s;
+        final int max;
+        int pos;
+        int predicados;
+        boolean dependeDeHoje;
+
+        Parser(String s, int max) {
+            this.s = s;
+            this.max = max;
+        }
+
+        No ou() {
+            List<No> fs = new ArrayList<>(List.of(e()));
+            while (tenta(',')) fs.add(e());
+            return fs.size() == 1 ? fs.get(0) : new Grupo(false, fs);
+        }
+
+        No e() {
+            List<No> fs = new ArrayList<>(List.of(termo()));
+            while (tenta(';')) fs.add(termo());
+            return fs.size() == 1 ? fs.get(0) : new Grupo(true, fs);
+        }
+
+        No termo() {
+            if (tenta('(')) {
+                No n = ou();
+                if (!tenta(')')) throw erro("')'");
+                return n;
+            }
+            return comparacao();
+        }
+
+        No comparacao() {
+            espacos();
+            int ini = pos;
+            while (pos < s.length() && Character.isLetter(s.charAt(pos))) pos++;
+            if (ini == pos) throw erro("nome de campo");
+            Campo campo = Campo.of(s.substring(ini, pos));
+
+            Op op = Op.of(operador());
+            if (!campo.ops.contains(op))
+                throw new IllegalArgumentException("Operador " + op.simbolo + " não permitido para " + campo.name().toLowerCase(Locale.ROOT));
+
+            List<String> valores = new ArrayList<>();
+            boolean lista = tenta('(');
+            if (lista) {
+                do valores.add(valor()); while (tenta(','));
+                if (!tenta(')')) throw erro("')'");
+            } else {
+                valores.add(valor());
+            }
+            if (lista && op != Op.IN && op != Op.OUT)
+                throw new IllegalArgumentException("Use lista entre parênteses só com =in= / =out=");
+            if (valores.size() > MAX_VALORES)
+                throw new IllegalArgumentException("Lista com mais de " + MAX_VALORES + " valores");
+            if (++predicados > max)
+                throw new IllegalArgumentException("Filtro com mais de " + max + " comparações");
+            if (campo == Campo.IDADE) dependeDeHoje = true; // idade vira datas de hoje (entra na chave do cache)
+
+            Comparacao c = new Comparacao(campo, op, valores);
+            try {
+                c.spec(); // valida os valores (números, datas...) já no parse
+            } catch (NumberFormatException | DateTimeException e) {
+                throw new IllegalArgumentException("Valor inválido para " + campo.name().toLowerCase(Locale.ROOT) + ": " + valores);
+            }
+            return c;
+        }
+
+        String operador() {
+            espacos();
+            if (s.startsWith("==", pos) || s.startsWith("!=", pos)) {
+                pos += 2;
+                return s.substring(pos - 2, pos);
+            }
+            if (pos < s.length() && s.charAt(pos) == '=') {
+                int fim = s.indexOf('=', pos + 1);
+                if (fim > pos + 1) {
+                    String op = s.substring(pos, fim + 1);
+                    pos = fim + 1;
+                    return op;
+                }
+            }
+            throw erro("operador (==, !=, =gt=, =ge=, =lt=, =le=, =in=, =out=)");
+        }
+
+        String valor() {
+            espacos();
+            if (pos < s.length() && (s.charAt(pos) == '"' || s.charAt(pos) == '\'')) {
+                char q = s.charAt(pos);
+                int fim = s.indexOf(q, pos + 1);
+                if (fim < 0) throw erro("aspas de fechamento");
+                String v = s.substring(pos + 1, fim);
+                pos = fim + 1;
+                return v;
+            }
+            int ini = pos;
+            while (pos < s.length() && ";,()".indexOf(s.charAt(pos)) < 0) pos++;
+            String v = s.substring(ini, pos).trim();
+            if (v.isEmpty()) throw erro("valor");
+            return v;
+        }
+
+        boolean tenta(char c) {
+            espacos();
+            if (pos < s.length() && s.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void espacos() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        IllegalArgumentException erro(String esperado) {
+            return new IllegalArgumentException("Filtro inválido na posição " + (pos + 1) + ": esperado " + esperado);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.alebarre.cadastro_clientes.service;
+
+import java.util.Map;
+
+/** Componentes que expõem contadores internos em /api/admin/metricas. */
+public interface MetricasProvider {
+    String nomeMetricas();
+    Map<String, Object> metricas();
+}
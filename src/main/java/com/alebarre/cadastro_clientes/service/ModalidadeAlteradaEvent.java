@@ -0,0 +1,4 @@
+package com.alebarre.cadastro_clientes.service;
+
+/** Publicado pelo ModalidadeService em criar/atualizar/excluir (dados embutidos nos DTOs de cliente). */
+public record ModalidadeAlteradaEvent(Long id) {}
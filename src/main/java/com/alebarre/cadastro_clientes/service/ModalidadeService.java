@@ -6,6 +6,7 @@ import com.alebarre.cadastro_clientes.domain.Modalidade;
 import com.alebarre.cadastro_clientes.repository.ModalidadeRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.List;
 @Service @RequiredArgsConstructor
 public class ModalidadeService {
     private final ModalidadeRepository repo;
+    private final ApplicationEventPublisher events;
 
     public List<ModalidadeDTO> listar() {
         return repo.findAll().stream().map(this::toDTO).toList();
@@ -23,16 +25,21 @@ public class ModalidadeService {
     public ModalidadeDTO criar(ModalidadeUpsertDTO dto) {
         var m = new Modalidade();
         aplicar(m, dto);
-        return toDTO(repo.save(m));
+        m = repo.save(m);
+        events.publishEvent(new ModalidadeAlteradaEvent(m.getId()));
+        return toDTO(m);
     }
     public ModalidadeDTO atualizar(Long id, ModalidadeUpsertDTO dto) {
         var m = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Modalidade não encontrada"));
         aplicar(m, dto);
-        return toDTO(repo.save(m));
+        m = repo.save(m);
+        events.publishEvent(new ModalidadeAlteradaEvent(id));
+        return toDTO(m);
     }
     public void excluir(Long id) {
         if (!repo.existsById(id)) throw new EntityNotFoundException("Modalidade não encontrada");
         repo.deleteById(id);
+        events.publishEvent(new ModalidadeAlteradaEvent(id));
     }
 
     private void aplicar(Modalidade m, ModalidadeUpsertDTO dto) {
@@ -55,8 +55,8 @@ public class RefreshTokenService {
     }
 
     public void revokeAll(String username) {
-        repo.findAll().stream()
-                .filter(r -> r.getUsername().equals(username) && !r.isRevoked())
+        // usa idx_refresh_token_username em vez de varrer a tabela
+        repo.findByUsernameAndRevokedFalse(username)
                 .forEach(r -> { r.setRevoked(true); repo.save(r); });
     }
 }
@@ -0,0 +1,320 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.RelatorioAgregadosDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioAgregadosDTO.Grupo;
+import com.alebarre.cadastro_clientes.DTO.RelatorioGeografiaDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioReceitaDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioReceitaDTO.Celula;
+import com.alebarre.cadastro_clientes.DTO.RelatorioReceitaDTO.Linha;
+import com.alebarre.cadastro_clientes.domain.Cliente;
+import com.alebarre.cadastro_clientes.domain.Endereco;
+import com.alebarre.cadastro_clientes.domain.Modalidade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Agregados do relatório de clientes (status, faixa etária, modalidade, UF), cada um numa consulta
+ * GROUP BY, com o mesmo filtro do relatório.
+ */
+@Service
+public class RelatorioAgregadosService {
+    public static final String FAIXAS_PADRAO = "0-17,18-29,30-44,45-59,60-";
+    private static final String SEM_UF = "sem-uf";
+
+    private final RelatorioClienteService relatorioService;
+    private final EntityManager em;
+
+    public RelatorioAgregadosService(RelatorioClienteService relatorioService, EntityManager em) {
+        this.relatorioService = relatorioService;
+        this.em = em;
+    }
+
+    /** Faixa etária fechada [min, max]; max null = sem limite superior. */
+    record Faixa(int min, Integer max) {
+        String rotulo() { return max == null ? min + "+" : min + "-" + max; }
+    }
+
+    @Transactional(readOnly = true)
+    public RelatorioAgregadosDTO agregados(
+            Boolean ativos, Boolean inativos,
+            Integer idadeMin, Integer idadeMax,
+            List<Long> modalidadeIds, String match, String filtro,
+            String faixas
+    ) {
+        List<Faixa> fx = parseFaixas(faixas == null || faixas.isBlank() ? FAIXAS_PADRAO : faixas);
+        Specification<Cliente> spec = relatorioService.especificacao(ativos, inativos, idadeMin, idadeMax, modalidadeIds, match, filtro);
+
+        List<Grupo> status = porStatus(spec);
+        long total = status.stream().mapToLong(Grupo::total).sum();
+        return new RelatorioAgregadosDTO(total, status, porFaixaEtaria(spec, fx), porModalidade(spec), porUf(spec));
+    }
+
+    private List<Grupo> porStatus(Specification<Cliente> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Cliente> c = cq.from(Cliente.class);
+        Path<Boolean> enabled = c.get("enabled");
+        cq.multiselect(enabled, cb.count(c)).where(filtro(cb, cq, c, spec)).groupBy(enabled);
+
+        List<Grupo> out = new ArrayList<>();
+        for (Tuple t : relatorioService.comTimeout(em.createQuery(cq)).getResultList()) {
+            boolean ativo = Boolean.TRUE.equals(t.get(0, Boolean.class));
+            out.add(new Grupo(String.valueOf(ativo), ativo ? "Ativos" : "Inativos", t.get(1, Long.class)));
+        }
+        return out;
+    }
+
+    // uma linha só: sum(case when nascimento in faixa then 1 else 0 end) para cada faixa
+    private List<Grupo> porFaixaEtaria(Specification<Cliente> spec, List<Faixa> faixas) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Cliente> c = cq.from(Cliente.class);
+        Path<LocalDate> nasc = c.get("dataNascimento");
+        LocalDate hoje = LocalDate.now();
+
+        List<Selection<?>> cols = new ArrayList<>();
+        for (Faixa f : faixas) {
+            cols.add(contarSe(cb, naFaixa(cb, nasc, f, hoje)));
+        }
+        cols.add(contarSe(cb, cb.isNull(nasc)));
+        cq.multiselect(cols).where(filtro(cb, cq, c, spec));
+
+        Tuple t = relatorioService.comTimeout(em.createQuery(cq)).getSingleResult();
+        List<Grupo> out = new ArrayList<>();
+        for (int i = 0; i < faixas.size(); i++) {
+            String r = faixas.get(i).rotulo();
+            out.add(new Grupo(r, r + " anos", valor(t.get(i))));
+        }
+        out.add(new Grupo("sem-data", "Sem data de nascimento", valor(t.get(faixas.size()))));
+        return out;
+    }
+
+    private List<Grupo> porModalidade(Specification<Cliente> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Cliente> c = cq.from(Cliente.class);
+        Join<Cliente, Modalidade> m = c.join("modalidades");
+        Expression<Long> n = cb.count(c);
+        cq.multiselect(m.get("id"), m.get("nome"), n)
+                .where(filtro(cb, cq, c, spec))
+                .groupBy(m.get("id"), m.get("nome"))
+                .orderBy(cb.desc(n), cb.asc(m.get("nome")));
+
+        return relatorioService.comTimeout(em.createQuery(cq)).getResultList().stream()
+                .map(t -> new Grupo(String.valueOf(t.get(0)), t.get(1, String.class), t.get(2, Long.class)))
+                .toList();
+    }
+
+    // cliente com 2 endereços na mesma UF conta uma vez (count distinct)
+    private List<Grupo> porUf(Specification<Cliente> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Cliente> c = cq.from(Cliente.class);
+        Join<Cliente, Endereco> e = c.join("enderecos");
+        Expression<String> uf = ufNormalizada(cb, e);
+        Expression<Long> n = cb.countDistinct(c);
+        cq.multiselect(uf, n)
+                .where(filtro(cb, cq, c, spec))
+                .groupBy(uf)
+                .orderBy(cb.desc(n), cb.asc(uf));
+
+        return relatorioService.comTimeout(em.createQuery(cq)).getResultList().stream()
+                .map(t -> new Grupo(t.get(0, String.class), t.get(0, String.class), t.get(1, Long.class)))
+                .toList();
+    }
+
+    /**
+     * Receita de clientes ativos numa única consulta: linhas (modalidade, UF principal) com contagem,
+     * soma de valor e uma coluna sum(case ...) por faixa etária. Os totais por modalidade/UF/faixa
+     * são somas dessas linhas em BigDecimal. UF principal = endereço de menor id; cliente sem endereço
+     * (ou com UF em branco) entra numa linha "sem-uf", não fica fora do total.
+     */
+    @Transactional(readOnly = true)
+    public RelatorioReceitaDTO receita(
+            Integer idadeMin, Integer idadeMax,
+            List<Long> modalidadeIds, String match, String filtro,
+            String faixas
+    ) {
+        List<Faixa> fx = parseFaixas(faixas == null || faixas.isBlank() ? FAIXAS_PADRAO : faixas);
+        Specification<Cliente> spec = relatorioService.especificacao(true, false, idadeMin, idadeMax, modalidadeIds, match, filtro);
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Cliente> c = cq.from(Cliente.class);
+        Join<Cliente, Modalidade> m = c.join("modalidades");
+        Join<Cliente, Endereco> e = c.join("enderecos", JoinType.LEFT);
+        Path<BigDecimal> valor = m.get("valor");
+        Path<LocalDate> nasc = c.get("dataNascimento");
+        Expression<String> uf = ufNormalizada(cb, e);
+        LocalDate hoje = LocalDate.now();
+
+        Subquery<Long> primeiro = cq.subquery(Long.class);
+        Root<Endereco> e2 = primeiro.from(Endereco.class);
+        primeiro.select(cb.min(e2.get("id"))).where(cb.equal(e2.get("cliente"), c));
+
+        List<Selection<?>> cols = new ArrayList<>(List.of(m.get("id"), m.get("nome"), uf, cb.count(c), cb.sum(valor)));
+        for (Faixa f : fx) cols.add(somarSe(cb, naFaixa(cb, nasc, f, hoje), valor));
+        cols.add(somarSe(cb, cb.isNull(nasc), valor));
+        for (Faixa f : fx) cols.add(contarSe(cb, naFaixa(cb, nasc, f, hoje)));
+        cols.add(contarSe(cb, cb.isNull(nasc)));
+
+        cq.multiselect(cols)
+                .where(filtro(cb, cq, c, spec), cb.or(cb.isNull(e.get("id")), cb.equal(e.get("id"), primeiro)))
+                .groupBy(m.get("id"), m.get("nome"), uf)
+                .orderBy(cb.asc(m.get("nome")), cb.asc(uf));
+
+        int nf = fx.size() + 1; // faixas + "sem data"
+        List<String> chavesFaixa = new ArrayList<>(fx.stream().map(Faixa::rotulo).toList());
+        chavesFaixa.add("sem-data");
+
+        Map<String, Linha> porModalidade = new LinkedHashMap<>(), porUf = new TreeMap<>(), porFaixa = new LinkedHashMap<>();
+        chavesFaixa.forEach(k -> porFaixa.put(k, new Linha(k, "sem-data".equals(k) ? "Sem data de nascimento" : k + " anos", 0, BigDecimal.ZERO)));
+        List<Celula> celulas = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        long assinaturas = 0;
+
+        for (Tuple t : relatorioService.comTimeout(em.createQuery(cq)).getResultList()) {
+            Long mid = t.get(0, Long.class);
+            String nome = t.get(1, String.class);
+            String u = t.get(2, String.class);
+            if (u == null || u.isEmpty()) u = SEM_UF;
+            long n = valor(t.get(3));
+            BigDecimal r = decimal(t.get(4));
+
+            celulas.add(new Celula(mid, nome, u, n, r));
+            somar(porModalidade, String.valueOf(mid), nome, n, r);
+            somar(porUf, u, SEM_UF.equals(u) ? "Sem UF" : u, n, r);
+            for (int i = 0; i < nf; i++) {
+                String k = chavesFaixa.get(i);
+                somar(porFaixa, k, porFaixa.get(k).rotulo(), valor(t.get(5 + nf + i)), decimal(t.get(5 + i)));
+            }
+            total = total.add(r);
+            assinaturas += n;
+        }
+        return new RelatorioReceitaDTO(total, assinaturas,
+                new ArrayList<>(porModalidade.values()), new ArrayList<>(porUf.values()),
+                new ArrayList<>(porFaixa.values()), celulas);
+    }
+
+    /**
+     * Clientes por UF e top N cidades por UF. Duas consultas GROUP BY com count(distinct cliente) sobre
+     * endereco(uf, cidade, cliente_id), então quem tem 2 endereços na mesma cidade/UF conta uma vez.
+     * O corte das N maiores cidades é feito aqui, sobre o resultado já agrupado (uma linha por cidade).
+     */
+    @Transactional(readOnly = true)
+    public RelatorioGeografiaDTO geografia(
+            Boolean ativos, Boolean inativos,
+            List<Long> modalidadeIds, String match, String filtro,
+            Integer top
+    ) {
+        int n = top == null || top <= 0 ? 5 : Math.min(top, 50);
+        Specification<Cliente> spec = relatorioService.especificacao(ativos, inativos, null, null, modalidadeIds, match, filtro);
+
+        // UF -> total de clientes; a UF já vem normalizada do banco, uma linha por UF
+        Map<String, Long> porUf = new HashMap<>();
+        for (Tuple t : contarDistintos(spec, false)) {
+            porUf.put(t.get(0, String.class), t.get(1, Long.class));
+        }
+
+        Map<String, Map<String, Long>> cidades = new HashMap<>();
+        for (Tuple t : contarDistintos(spec, true)) {
+            cidades.computeIfAbsent(t.get(0, String.class), k -> new HashMap<>())
+                    .put(t.get(1, String.class), t.get(2, Long.class));
+        }
+
+        List<RelatorioGeografiaDTO.Uf> ufs = porUf.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(u -> new RelatorioGeografiaDTO.Uf(u.getKey(), u.getValue(),
+                        cidades.getOrDefault(u.getKey(), Map.of()).entrySet().stream()
+                                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                                .limit(n)
+                                .map(c -> new RelatorioGeografiaDTO.Cidade(c.getKey(), c.getValue()))
+                                .toList()))
+                .toList();
+        return new RelatorioGeografiaDTO(ufs);
+    }
+
+    // group by upper(trim(e.uf)) [, trim(e.cidade)] com count(distinct c). A normalização fica no
+    // group by: somar contagens distintas de grupos "sp"/"SP " contaria duas vezes quem está nos dois.
+    private List<Tuple> contarDistintos(Specification<Cliente> spec, boolean porCidade) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Cliente> c = cq.from(Cliente.class);
+        Join<Cliente, Endereco> e = c.join("enderecos");
+        Expression<String> uf = ufNormalizada(cb, e);
+        Expression<String> cidade = cb.trim(e.<String>get("cidade"));
+        Expression<Long> n = cb.countDistinct(c);
+        if (porCidade) {
+            cq.multiselect(uf, cidade, n).groupBy(uf, cidade);
+        } else {
+            cq.multiselect(uf, n).groupBy(uf);
+        }
+        cq.where(filtro(cb, cq, c, spec));
+        return relatorioService.comTimeout(em.createQuery(cq)).getResultList();
+    }
+
+    // upper(trim(coalesce(e.uf, ''))): mesma chave de UF em todos os agrupamentos
+    private static Expression<String> ufNormalizada(CriteriaBuilder cb, Join<Cliente, Endereco> e) {
+        return cb.upper(cb.trim(cb.coalesce(e.<String>get("uf"), "")));
+    }
+
+    private static void somar(Map<String, Linha> acc, String chave, String rotulo, long n, BigDecimal r) {
+        acc.merge(chave, new Linha(chave, rotulo, n, r),
+                (a, b) -> new Linha(chave, a.rotulo(), a.assinaturas() + b.assinaturas(), a.receita().add(b.receita())));
+    }
+
+    /** Filtro do relatório aplicado direto na raiz; modalidades entram como (NOT) EXISTS, sem multiplicar linhas. */
+    Predicate filtro(CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Cliente> c, Specification<Cliente> spec) {
+        return spec == null ? cb.conjunction() : spec.toPredicate(c, cq, cb);
+    }
+
+    // idade >= min  => nascimento <= hoje - min anos; idade <= max => nascimento >= hoje - (max+1) anos + 1 dia
+    private static Predicate naFaixa(CriteriaBuilder cb, Path<LocalDate> nasc, Faixa f, LocalDate hoje) {
+        Predicate p = cb.lessThanOrEqualTo(nasc, hoje.minusYears(f.min()));
+        return f.max() == null ? p : cb.and(p, cb.greaterThanOrEqualTo(nasc, hoje.minusYears(f.max() + 1L).plusDays(1)));
+    }
+
+    private static Expression<BigDecimal> somarSe(CriteriaBuilder cb, Predicate p, Expression<BigDecimal> valor) {
+        return cb.sum(cb.<BigDecimal>selectCase().when(p, valor).otherwise(BigDecimal.ZERO));
+    }
+
+    private static BigDecimal decimal(Object o) {
+        return o == null ? BigDecimal.ZERO : (o instanceof BigDecimal b ? b : new BigDecimal(o.toString()));
+    }
+
+    private static Expression<Integer> contarSe(CriteriaBuilder cb, Predicate p) {
+        return cb.sum(cb.<Integer>selectCase().when(p, 1).otherwise(0));
+    }
+
+    private static long valor(Object o) {
+        return o == null ? 0 : ((Number) o).longValue();
+    }
+
+    static List<Faixa> parseFaixas(String spec) {
+        List<Faixa> out = new ArrayList<>();
+        for (String parte : spec.split(",")) {
+            String p = parte.trim();
+            try {
+                int i = p.indexOf('-');
+                if (i <= 0) throw new IllegalArgumentException();
+                int min = Integer.parseInt(p.substring(0, i).trim());
+                String fim = p.substring(i + 1).trim();
+                Integer max = fim.isEmpty() ? null : Integer.valueOf(fim);
+                if (min < 0 || (max != null && max < min)) throw new IllegalArgumentException();
+                out.add(new Faixa(min, max));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Faixa etária inválida: '" + p + "' (use ex.: 18-29 ou 60-)");
+            }
+        }
+        if (out.size() > 20) throw new IllegalArgumentException("No máximo 20 faixas etárias");
+        return out;
+    }
+}
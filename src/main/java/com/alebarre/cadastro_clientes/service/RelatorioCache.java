@@ -0,0 +1,61 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO;
+import com.alebarre.cadastro_clientes.cache.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Resultado do relatório de clientes por filtro normalizado (status, limites de nascimento já
+ * resolvidos para o dia, modalidades ordenadas). Qualquer escrita em cliente ou modalidade limpa
+ * tudo: o relatório cruza todas as linhas, então invalidação fina não compensa.
+ */
+@Component
+public class RelatorioCache implements MetricasProvider {
+
+    /** Filtro normalizado; nascimento em datas, então a chave "vira" sozinha na troca de dia. {@code expressao} na forma canônica. */
+    public record Chave(String status, LocalDate nascDesde, LocalDate nascAte, List<Long> modalidades, String match,
+                        String expressao) {}
+
+    private final BoundedCache<Chave, List<ClienteSummaryDTO>> cache;
+    private final int maxLinhas;
+
+    public RelatorioCache(@Value("${app.cache.relatorio.max-size:50}") int maxSize,
+                          @Value("${app.cache.relatorio.ttl:PT10M}") Duration ttl,
+                          @Value("${app.cache.relatorio.max-linhas:20000}") int maxLinhas) {
+        this.cache = new BoundedCache<>(maxSize, ttl);
+        this.maxLinhas = maxLinhas;
+    }
+
+    /** Resultados maiores que {@code max-linhas} não são guardados (ocupariam o cache todo). */
+    public List<ClienteSummaryDTO> get(Chave chave, Supplier<List<ClienteSummaryDTO>> loader) {
+        return cache.get(chave, k -> List.copyOf(loader.get()), l -> l.size() <= maxLinhas);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent e) { cache.invalidateAll(); }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesEmLote(ClientesEmLoteEvent e) { cache.invalidateAll(); }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModalidadeAlterada(ModalidadeAlteradaEvent e) { cache.invalidateAll(); }
+
+    @Override
+    public String nomeMetricas() { return "relatorioCache"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>(cache.stats());
+        m.put("maxLinhasPorEntrada", maxLinhas);
+        return m;
+    }
+}
@@ -1,26 +1,251 @@
 package com.alebarre.cadastro_clientes.service;
 
+import com.alebarre.cadastro_clientes.DTO.AniversarianteDTO;
 import com.alebarre.cadastro_clientes.DTO.ClienteSummaryDTO;
+import com.alebarre.cadastro_clientes.DTO.CursorPageDTO;
 import com.alebarre.cadastro_clientes.domain.Cliente;
+import com.alebarre.cadastro_clientes.domain.Modalidade;
 import com.alebarre.cadastro_clientes.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Relatório de clientes. O filtro vira um Specification; as páginas são keyset por id
+ * (ids filtrados + resumos numa segunda consulta), então nenhuma variante carrega entidades
+ * nem o conjunto inteiro de uma vez.
+ */
 @Service
 public class RelatorioClienteService {
+    public static final Set<String> FORMATOS = Set.of("csv", "ndjson");
+    public static final String MATCH_ANY = "any";
+    public static final String MATCH_ALL = "all";
+    public static final String MATCH_NONE = "none";
+    private static final int BLOCO = 1000;
+
     private final ClienteRepository repo;
+    private final EntityManager em;
+    private final ObjectMapper mapper;
+    private final RelatorioCache cache;
+    private final int maxPredicados;
+    private final int timeoutMs;
 
-    public RelatorioClienteService(ClienteRepository repo) { this.repo = repo; }
+    public RelatorioClienteService(ClienteRepository repo, EntityManager em, ObjectMapper mapper, RelatorioCache cache,
+                                   @Value("${app.relatorio.filtro.max-predicados:10}") int maxPredicados,
+                                   @Value("${app.relatorio.filtro.timeout:PT10S}") Duration timeout) {
+        this.repo = repo;
+        this.em = em;
+        this.mapper = mapper;
+        this.cache = cache;
+        this.maxPredicados = maxPredicados;
+        this.timeoutMs = (int) Math.min(Integer.MAX_VALUE, timeout.toMillis());
+    }
 
     public List<ClienteSummaryDTO> buscar(
             Boolean ativos, Boolean inativos,
             Integer idadeMin, Integer idadeMax,
-            List<Long> modalidadeIds
+            List<Long> modalidadeIds, String match, String filtro
+    ) {
+        FiltroExpressao expr = FiltroExpressao.parse(filtro, maxPredicados);
+        return cache.get(chave(ativos, inativos, idadeMin, idadeMax, modalidadeIds, match, expr), () -> {
+            Specification<Cliente> spec = e(especificacao(ativos, inativos, idadeMin, idadeMax, modalidadeIds, match), expr);
+            List<ClienteSummaryDTO> out = new ArrayList<>();
+            long afterId = 0;
+            List<Long> ids;
+            do {
+                ids = idsApos(spec, afterId, BLOCO);
+                out.addAll(repo.findSummariesOrdered(ids));
+                if (!ids.isEmpty()) afterId = ids.get(ids.size() - 1);
+            } while (ids.size() == BLOCO);
+            return out;
+        });
+    }
+
+    // mesmas regras do especificacao(), com as idades já convertidas em datas de hoje
+    private static RelatorioCache.Chave chave(
+            Boolean ativos, Boolean inativos,
+            Integer idadeMin, Integer idadeMax,
+            List<Long> modalidadeIds, String match, FiltroExpressao expr
+    ) {
+        boolean onlyAtivos   = Boolean.TRUE.equals(ativos)   && !Boolean.TRUE.equals(inativos);
+        boolean onlyInativos = Boolean.TRUE.equals(inativos) && !Boolean.TRUE.equals(ativos);
+        String status = onlyAtivos ? "ativos" : onlyInativos ? "inativos" : "todos";
+
+        LocalDate hoje = LocalDate.now();
+        LocalDate nascAte = idadeMin == null ? null : hoje.minusYears(idadeMin);
+        LocalDate nascDesde = idadeMax == null ? null : hoje.minusYears(idadeMax + 1).plusDays(1);
+
+        List<Long> mods = modalidadeIds == null ? List.of()
+                : modalidadeIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        String m = mods.isEmpty() ? null
+                : (match == null || match.isBlank() ? MATCH_ANY : match.toLowerCase(Locale.ROOT));
+        // expressão na forma canônica; se usa idade, vale só para o dia
+        String e = expr == null ? null : expr.dependeDeHoje() ? expr.canonica() + "@" + hoje : expr.canonica();
+        return new RelatorioCache.Chave(status, nascDesde, nascAte, mods, m, e);
+    }
+
+    /** Página keyset por id; {@code after} é o token "next" da página anterior. */
+    public CursorPageDTO<ClienteSummaryDTO> buscarPagina(
+            Boolean ativos, Boolean inativos,
+            Integer idadeMin, Integer idadeMax,
+            List<Long> modalidadeIds, String match, String filtro,
+            Integer size, String after
+    ) {
+        int s = size == null || size <= 0 ? 50 : Math.min(size, 500);
+        long afterId = 0;
+        if (after != null && !after.isBlank()) {
+            ClienteCursor c = ClienteCursor.decode(after);
+            if (!"id".equals(c.sort())) throw new IllegalArgumentException("Cursor inválido");
+            afterId = c.id();
+        }
+        Specification<Cliente> spec = especificacao(ativos, inativos, idadeMin, idadeMax, modalidadeIds, match, filtro);
+        List<Long> ids = idsApos(spec, afterId, s + 1);
+        boolean hasNext = ids.size() > s;
+        if (hasNext) ids = ids.subList(0, s);
+
+        String next = hasNext ? new ClienteCursor("id", "asc", null, ids.get(ids.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(repo.findSummariesOrdered(ids), s, hasNext, afterId > 0, next, null);
+    }
+
+    /**
+     * Escreve o relatório inteiro no stream, um bloco de ids por vez (cada bloco é uma consulta curta,
+     * sem transação longa). O primeiro byte sai após o primeiro bloco.
+     */
+    public long exportar(
+            Boolean ativos, Boolean inativos,
+            Integer idadeMin, Integer idadeMax,
+            List<Long> modalidadeIds, String match, String filtro,
+            String formato, OutputStream out
+    ) throws IOException {
+        boolean csv = "csv".equals(formato);
+        Specification<Cliente> spec = especificacao(ativos, inativos, idadeMin, idadeMax, modalidadeIds, match, filtro);
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (csv) w.write(Csv.SUMMARY_HEADER + "\n");
+
+        long n = percorrer(spec, c -> w.write(csv ? Csv.summaryLine(c) : mapper.writeValueAsString(c) + "\n"), w);
+        w.flush();
+        return n;
+    }
+
+    @FunctionalInterface
+    public interface LinhaHandler {
+        void accept(ClienteSummaryDTO c) throws IOException;
+    }
+
+    /** Passa cada resumo que atende ao filtro para {@code linha}, um bloco de ids por vez; {@code aposBloco} é chamado a cada bloco. */
+    public long percorrer(Specification<Cliente> spec, LinhaHandler linha, Flushable aposBloco) throws IOException {
+        long n = 0, afterId = 0;
+        List<Long> ids;
+        do {
+            ids = idsApos(spec, afterId, BLOCO);
+            for (ClienteSummaryDTO c : repo.findSummariesOrdered(ids)) {
+                linha.accept(c);
+                n++;
+            }
+            aposBloco.flush();
+            if (!ids.isEmpty()) afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == BLOCO);
+        return n;
+    }
+
+    /**
+     * Aniversariantes de hoje até hoje + {@code dias}, em ordem de data. A janela vira uma ou duas faixas
+     * de MMDD (duas quando passa de 31/12), cada uma lida pelo índice já ordenada.
+     */
+    public List<AniversarianteDTO> aniversariantes(Integer dias, Integer limite) {
+        int d = dias == null ? 7 : dias;
+        if (d < 0 || d > 366) throw new IllegalArgumentException("dias deve estar entre 0 e 366");
+        int max = limite == null || limite <= 0 ? 100 : Math.min(limite, 1000);
+
+        LocalDate hoje = LocalDate.now();
+        LocalDate fim = hoje.plusDays(d);
+        int de = md(hoje), ate = md(fim);
+        // quem nasceu em 29/02 comemora em 28/02 nos anos não bissextos
+        if (ate == 228 && !fim.isLeapYear()) ate = 229;
+
+        List<Object[]> rows = new ArrayList<>();
+        if (d >= 365) {
+            // o ano todo, começando por hoje
+            rows.addAll(repo.findAniversariantes(de, 1231, PageRequest.of(0, max)));
+            if (rows.size() < max && de > 101)
+                rows.addAll(repo.findAniversariantes(101, de - 1, PageRequest.of(0, max - rows.size())));
+        } else if (de <= ate) {
+            rows.addAll(repo.findAniversariantes(de, ate, PageRequest.of(0, max)));
+        } else {
+            // virada do ano: [hoje..31/12] e depois [01/01..fim]
+            rows.addAll(repo.findAniversariantes(de, 1231, PageRequest.of(0, max)));
+            if (rows.size() < max) rows.addAll(repo.findAniversariantes(101, ate, PageRequest.of(0, max - rows.size())));
+        }
+
+        return rows.stream().map(r -> {
+            LocalDate nasc = (LocalDate) r[5];
+            LocalDate proximo = proximoAniversario(nasc, hoje);
+            return new AniversarianteDTO((Long) r[0], (String) r[1], (String) r[2], (String) r[3],
+                    Boolean.TRUE.equals(r[4]), nasc, proximo,
+                    proximo.getYear() - nasc.getYear(), ChronoUnit.DAYS.between(hoje, proximo));
+        }).toList();
+    }
+
+    private static int md(LocalDate d) {
+        return d.getMonthValue() * 100 + d.getDayOfMonth();
+    }
+
+    // 29/02 em ano não bissexto: comemorado em 28/02 (LocalDate.withYear já faz esse ajuste)
+    static LocalDate proximoAniversario(LocalDate nasc, LocalDate hoje) {
+        LocalDate esteAno = nasc.withYear(hoje.getYear());
+        return esteAno.isBefore(hoje) ? nasc.withYear(hoje.getYear() + 1) : esteAno;
+    }
+
+    /** Até {@code limit} ids (crescentes, maiores que {@code afterId}) que atendem ao filtro. */
+    public List<Long> idsApos(Specification<Cliente> spec, long afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Cliente> root = cq.from(Cliente.class);
+        Path<Long> id = root.get("id");
+        jakarta.persistence.criteria.Predicate apos = cb.greaterThan(id, afterId);
+        cq.select(id)
+                .where(spec == null ? apos : cb.and(apos, spec.toPredicate(root, cq, cb)))
+                .orderBy(cb.asc(id));
+        return comTimeout(em.createQuery(cq)).setMaxResults(limit).getResultList();
+    }
+
+    /** Limite de tempo das consultas de relatório ({@code app.relatorio.filtro.timeout}); estourou = QueryTimeoutException. */
+    public <T> TypedQuery<T> comTimeout(TypedQuery<T> q) {
+        return q.setHint("jakarta.persistence.query.timeout", timeoutMs);
+    }
+
+    /** Como {@link #especificacao(Boolean, Boolean, Integer, Integer, List, String)}, mais a expressão {@code filtro} (ver {@link FiltroExpressao}) em AND. */
+    public Specification<Cliente> especificacao(
+            Boolean ativos, Boolean inativos,
+            Integer idadeMin, Integer idadeMax,
+            List<Long> modalidadeIds, String match, String filtro
+    ) {
+        return e(especificacao(ativos, inativos, idadeMin, idadeMax, modalidadeIds, match),
+                FiltroExpressao.parse(filtro, maxPredicados));
+    }
+
+    private static Specification<Cliente> e(Specification<Cliente> spec, FiltroExpressao expr) {
+        if (expr == null) return spec;
+        return spec == null ? expr.spec() : spec.and(expr.spec());
+    }
+
+    /** Filtro do relatório como Specification (também usado pelas operações em lote). Null = sem filtro. */
+    public Specification<Cliente> especificacao(
+            Boolean ativos, Boolean inativos,
+            Integer idadeMin, Integer idadeMax,
+            List<Long> modalidadeIds, String match
     ) {
         // Não aceita null - confirmar o tri-estado no GPT
         boolean onlyAtivos   = Boolean.TRUE.equals(ativos)   && !Boolean.TRUE.equals(inativos);
@@ -41,9 +266,16 @@ public class RelatorioClienteService {
             parts.add(faixaEtaria(idadeMin, idadeMax));
         }
 
-        // Modalidades (opcional)
+        // Modalidades (opcional): any = alguma, all = todas, none = nenhuma das informadas
         if (modalidadeIds != null && !modalidadeIds.isEmpty()) {
-            parts.add(comAlgumaModalidade(modalidadeIds));
+            Set<Long> ids = new LinkedHashSet<>(modalidadeIds);
+            String m = match == null || match.isBlank() ? MATCH_ANY : match.toLowerCase(Locale.ROOT);
+            parts.add(switch (m) {
+                case MATCH_ANY -> comAlgumaModalidade(ids);
+                case MATCH_ALL -> comTodasModalidades(ids);
+                case MATCH_NONE -> semNenhumaModalidade(ids);
+                default -> throw new IllegalArgumentException("match inválido: use any, all ou none");
+            });
         }
 
         // Combina todas as partes com AND; se vazio, passa null (sem filtro)
@@ -51,22 +283,41 @@ public class RelatorioClienteService {
         for (Specification<Cliente> s : parts) {
             spec = (spec == null) ? s : spec.and(s);
         }
+        return spec;
+    }
 
-        return repo.findAll(spec).stream()
-                .map(ClienteSummaryDTO::fromEntity)
-                .collect(Collectors.toList());
+    // semi-join: EXISTS correlacionado, sem join + DISTINCT na consulta principal
+    private Specification<Cliente> comAlgumaModalidade(Set<Long> ids) {
+        return (root, query, cb) -> cb.exists(modalidadesDoCliente(root, query, ids));
     }
 
-    private Specification<Cliente> comAlgumaModalidade(List<Long> ids) {
+    // anti-join: NOT EXISTS
+    private Specification<Cliente> semNenhumaModalidade(Set<Long> ids) {
+        return (root, query, cb) -> cb.not(cb.exists(modalidadesDoCliente(root, query, ids)));
+    }
+
+    // c.id in (select c2.id ... where m.id in :ids group by c2.id having count(m.id) = :n)
+    private Specification<Cliente> comTodasModalidades(Set<Long> ids) {
         return (root, query, cb) -> {
-            query.distinct(true);
-            Join<Object, Object> join = root.join("modalidades", JoinType.INNER);
-            CriteriaBuilder.In<Object> in = cb.in(join.get("id"));
-            ids.forEach(in::value);
-            return in;
+            Subquery<Long> sq = query.subquery(Long.class);
+            Root<Cliente> c2 = sq.from(Cliente.class);
+            Join<Cliente, Modalidade> m = c2.join("modalidades");
+            Path<Long> c2Id = c2.get("id");
+            sq.select(c2Id)
+                    .where(m.get("id").in(ids))
+                    .groupBy(c2Id)
+                    .having(cb.equal(cb.count(m.get("id")), (long) ids.size()));
+            return root.get("id").in(sq);
         };
     }
 
+    private static Subquery<Long> modalidadesDoCliente(Root<Cliente> root, CriteriaQuery<?> query, Set<Long> ids) {
+        Subquery<Long> sq = query.subquery(Long.class);
+        Root<Cliente> c = sq.correlate(root);
+        Join<Cliente, Modalidade> m = c.join("modalidades");
+        return sq.select(m.get("id")).where(m.get("id").in(ids));
+    }
+
     private Specification<Cliente> faixaEtaria(Integer idadeMin, Integer idadeMax) {
         return (root, query, cb) -> {
             Path<LocalDate> dataNascimento = root.get("dataNascimento");
@@ -0,0 +1,241 @@
+package com.alebarre.cadastro_clientes.service;
+
+import com.alebarre.cadastro_clientes.DTO.RelatorioFiltroDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioJobDTO;
+import com.alebarre.cadastro_clientes.DTO.RelatorioJobRequestDTO;
+import com.alebarre.cadastro_clientes.domain.Cliente;
+import com.alebarre.cadastro_clientes.exception.ConflitoException;
+import com.alebarre.cadastro_clientes.exception.ServicoSobrecarregadoException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jobs assíncronos de relatório: a exportação roda num pool limitado (fila cheia = 503) e grava em disco
+ * (CSV gzip ou XLSX). O arquivo fica disponível para download até expirar; um job agendado apaga os vencidos.
+ * O estado dos jobs é só em memória: num restart os arquivos restantes são descartados.
+ */
+@Service
+public class RelatorioJobService implements MetricasProvider {
+    private static final Logger log = LoggerFactory.getLogger(RelatorioJobService.class);
+    private static final String PREFIXO = "relatorio-";
+
+    public static final Set<String> FORMATOS = Set.of("csv", "xlsx");
+
+    public enum Status { PENDENTE, EXECUTANDO, CONCLUIDO, ERRO }
+
+    /** Arquivo pronto para download. */
+    public record Arquivo(Path path, String nome, String contentType, long tamanho) {}
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final String dono;
+        final String formato;
+        final Instant criadoEm = Instant.now();
+        volatile Status status = Status.PENDENTE;
+        volatile Instant concluidoEm;
+        volatile long linhas;
+        volatile Path arquivo;
+        volatile String erro;
+
+        Job(String dono, String formato) {
+            this.dono = dono;
+            this.formato = formato;
+        }
+    }
+
+    private final RelatorioClienteService relatorio;
+    private final Path dir;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final LongAdder concluidos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder rejeitados = new LongAdder();
+    private final LongAdder expirados = new LongAdder();
+
+    public RelatorioJobService(RelatorioClienteService relatorio,
+                               @Value("${app.relatorio.jobs.dir:${java.io.tmpdir}/cadastro-relatorios}") String dir,
+                               @Value("${app.relatorio.jobs.threads:2}") int threads,
+                               @Value("${app.relatorio.jobs.fila:20}") int fila,
+                               @Value("${app.relatorio.jobs.ttl:PT1H}") Duration ttl) {
+        this.relatorio = relatorio;
+        this.dir = Path.of(dir);
+        this.ttl = ttl;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), r -> {
+                    Thread t = new Thread(r, "relatorio-job-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    void prepararDiretorio() throws IOException {
+        Files.createDirectories(dir);
+        // sobras de uma execução anterior (o estado dos jobs não sobrevive ao restart)
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, PREFIXO + "*")) {
+            for (Path p : ds) Files.deleteIfExists(p);
+        }
+    }
+
+    @PreDestroy
+    void parar() {
+        executor.shutdownNow();
+    }
+
+    public RelatorioJobDTO criar(RelatorioJobRequestDTO req, String dono) {
+        String formato = req.formato() == null ? "csv" : req.formato().toLowerCase(Locale.ROOT);
+        if (!FORMATOS.contains(formato)) throw new IllegalArgumentException("Formato inválido: use csv ou xlsx");
+        RelatorioFiltroDTO f = req.filtro();
+        // monta o filtro já aqui, para erro de parâmetro virar 400 e não um job com falha
+        Specification<Cliente> spec = f == null ? null
+                : relatorio.especificacao(f.ativos(), f.inativos(), f.idadeMin(), f.idadeMax(), f.modalidades(), f.match(), f.expressao());
+
+        Job job = new Job(dono, formato);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executar(job, spec));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            rejeitados.increment();
+            throw new ServicoSobrecarregadoException("Fila de relatórios cheia. Tente novamente em instantes.", 30);
+        }
+        return toDTO(job);
+    }
+
+    public RelatorioJobDTO status(String id, String usuario, boolean admin) {
+        return toDTO(buscar(id, usuario, admin));
+    }
+
+    public Arquivo arquivo(String id, String usuario, boolean admin) {
+        Job job = buscar(id, usuario, admin);
+        Path p = job.arquivo;
+        if (job.status != Status.CONCLUIDO || p == null || !Files.exists(p))
+            throw new ConflitoException("Relatório ainda não está disponível (status " + job.status + ")");
+        boolean csv = "csv".equals(job.formato);
+        try {
+            return new Arquivo(p,
+                    csv ? "relatorio-clientes.csv.gz" : "relatorio-clientes.xlsx",
+                    csv ? "application/gzip" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                    Files.size(p));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // job de outro usuário responde 404, como se não existisse
+    private Job buscar(String id, String usuario, boolean admin) {
+        Job job = jobs.get(id);
+        if (job == null || (!admin && !job.dono.equals(usuario)))
+            throw new EntityNotFoundException("Job de relatório não encontrado");
+        return job;
+    }
+
+    private void executar(Job job, Specification<Cliente> spec) {
+        job.status = Status.EXECUTANDO;
+        boolean csv = "csv".equals(job.formato);
+        Path destino = dir.resolve(PREFIXO + job.id + (csv ? ".csv.gz" : ".xlsx"));
+        Path tmp = dir.resolve(PREFIXO + job.id + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+                job.linhas = csv ? escreverCsv(spec, out) : escreverXlsx(spec, out);
+            }
+            Files.move(tmp, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.arquivo = destino;
+            job.concluidoEm = Instant.now();
+            job.status = Status.CONCLUIDO;
+            concluidos.increment();
+        } catch (Exception e) {
+            log.error("Falha no job de relatório {}", job.id, e);
+            job.erro = "Falha ao gerar o relatório";
+            job.concluidoEm = Instant.now();
+            job.status = Status.ERRO;
+            falhas.increment();
+            try { Files.deleteIfExists(tmp); } catch (IOException ignored) { }
+        }
+    }
+
+    private long escreverCsv(Specification<Cliente> spec, OutputStream out) throws IOException {
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out, 64 * 1024), StandardCharsets.UTF_8))) {
+            w.write(Csv.SUMMARY_HEADER + "\n");
+            return relatorio.percorrer(spec, c -> w.write(Csv.summaryLine(c)), () -> { });
+        }
+    }
+
+    private long escreverXlsx(Specification<Cliente> spec, OutputStream out) throws IOException {
+        try (Xlsx x = new Xlsx(out, "Clientes")) {
+            x.linha((Object[]) Csv.SUMMARY_HEADER.split(String.valueOf(Csv.SEP)));
+            return relatorio.percorrer(spec, c -> x.linha(c.id(), c.nome(), c.enabled() ? "sim" : "não", c.email(),
+                    c.telefone(), c.enderecosResumo(), c.quantidadeModalidades(),
+                    c.dataNascimento() == null ? null : c.dataNascimento().toString()), () -> { });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.relatorio.jobs.limpeza:PT5M}")
+    public void expirar() {
+        Instant agora = Instant.now();
+        jobs.values().removeIf(job -> {
+            Instant exp = expiraEm(job);
+            if (exp == null || exp.isAfter(agora)) return false;
+            try {
+                if (job.arquivo != null) Files.deleteIfExists(job.arquivo);
+            } catch (IOException e) {
+                log.warn("Não foi possível apagar {}", job.arquivo, e);
+            }
+            expirados.increment();
+            return true;
+        });
+    }
+
+    private Instant expiraEm(Job job) {
+        return job.concluidoEm == null ? null : job.concluidoEm.plus(ttl);
+    }
+
+    private RelatorioJobDTO toDTO(Job job) {
+        long tamanho = 0;
+        Path p = job.arquivo;
+        if (p != null) {
+            try { tamanho = Files.size(p); } catch (IOException ignored) { }
+        }
+        return new RelatorioJobDTO(job.id, job.status.name(), job.formato, job.criadoEm, job.concluidoEm,
+                expiraEm(job), job.linhas, tamanho, job.erro,
+                job.status == Status.CONCLUIDO ? "/api/relatorios/clientes/jobs/" + job.id + "/arquivo" : null);
+    }
+
+    @Override
+    public String nomeMetricas() { return "relatorioJobs"; }
+
+    @Override
+    public Map<String, Object> metricas() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("emExecucao", executor.getActiveCount());
+        m.put("naFila", executor.getQueue().size());
+        m.put("capacidadeFila", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        m.put("jobsRetidos", jobs.size());
+        m.put("concluidos", concluidos.sum());
+        m.put("falhas", falhas.sum());
+        m.put("rejeitados", rejeitados.sum());
+        m.put("expirados", expirados.sum());
+        return m;
+    }
+}
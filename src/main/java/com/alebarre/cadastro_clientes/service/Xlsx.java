@@ -0,0 +1,103 @@
+package com.alebarre.cadastro_clientes.service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX mínimo (uma planilha, strings inline) escrito em streaming: as partes fixas vão primeiro e a
+ * planilha é escrita linha a linha, então a memória não cresce com o número de linhas.
+ */
+final class Xlsx implements Closeable, Flushable {
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+            </Types>""";
+
+    private static final String RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+            </Relationships>""";
+
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+            <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets>
+            </workbook>""";
+
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+            </Relationships>""";
+
+    private final ZipOutputStream zip;
+    private final Writer w;
+
+    Xlsx(OutputStream out, String nomePlanilha) throws IOException {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.w = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        parte("[Content_Types].xml", CONTENT_TYPES);
+        parte("_rels/.rels", RELS);
+        parte("xl/workbook.xml", WORKBOOK.formatted(xml(nomePlanilha)));
+        parte("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        w.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    /** Números viram células numéricas; o resto, texto (null = célula vazia). */
+    void linha(Object... valores) throws IOException {
+        w.write("<row>");
+        for (Object v : valores) {
+            if (v == null) {
+                w.write("<c/>");
+            } else if (v instanceof Number n) {
+                w.write("<c><v>" + n + "</v></c>");
+            } else {
+                w.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">" + xml(v.toString()) + "</t></is></c>");
+            }
+        }
+        w.write("</row>");
+    }
+
+    @Override
+    public void flush() throws IOException { w.flush(); }
+
+    @Override
+    public void close() throws IOException {
+        w.write("</sheetData></worksheet>");
+        w.flush();
+        zip.closeEntry();
+        zip.close();
+    }
+
+    private void parte(String nome, String conteudo) throws IOException {
+        zip.putNextEntry(new ZipEntry(nome));
+        zip.write(conteudo.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // escapa XML e remove caracteres de controle que o Excel rejeita
+    private static String xml(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> { if (ch >= 0x20 || ch == '\t' || ch == '\n' || ch == '\r') sb.append(ch); }
+            }
+        }
+        return sb.toString();
+    }
+}
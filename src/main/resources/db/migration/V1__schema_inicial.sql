@@ -0,0 +1,98 @@
+-- Esquema equivalente ao que o Hibernate (ddl-auto=update) gerava a partir das entidades.
+-- Bancos já existentes entram com baseline nesta versão (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS app_user (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    username VARCHAR(120) NOT NULL,
+    password VARCHAR(255),
+    nome     VARCHAR(120) NOT NULL,
+    email    VARCHAR(180) NOT NULL,
+    telefone VARCHAR(20),
+    roles    VARCHAR(255),
+    enabled  BIT(1)       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_app_user_username UNIQUE (username),
+    CONSTRAINT uk_app_user_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS cliente (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    nome            VARCHAR(120),
+    email           VARCHAR(255),
+    telefone        VARCHAR(255),
+    cpf             VARCHAR(255),
+    data_nascimento DATE,
+    enabled         BIT(1)       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_cliente_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS endereco (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    logradouro  VARCHAR(255),
+    numero      VARCHAR(255),
+    complemento VARCHAR(255),
+    bairro      VARCHAR(255),
+    cidade      VARCHAR(255),
+    uf          VARCHAR(2),
+    cep         VARCHAR(255),
+    pais        VARCHAR(255),
+    cliente_id  BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_endereco_cliente FOREIGN KEY (cliente_id) REFERENCES cliente (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS modalidade (
+    id        BIGINT         NOT NULL AUTO_INCREMENT,
+    nome      VARCHAR(255)   NOT NULL,
+    descricao VARCHAR(255),
+    valor     DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS cliente_modalidade (
+    cliente_id    BIGINT NOT NULL,
+    modalidade_id BIGINT NOT NULL,
+    PRIMARY KEY (cliente_id, modalidade_id),
+    CONSTRAINT fk_cliente_modalidade_cliente FOREIGN KEY (cliente_id) REFERENCES cliente (id),
+    CONSTRAINT fk_cliente_modalidade_modalidade FOREIGN KEY (modalidade_id) REFERENCES modalidade (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    token      VARCHAR(255) NOT NULL,
+    username   VARCHAR(255) NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    revoked    BIT(1)       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_token_token UNIQUE (token)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS verification_token (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    email      VARCHAR(255) NOT NULL,
+    code       VARCHAR(255) NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    used       BIT(1)       NOT NULL,
+    created_at DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS password_reset_token (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    email      VARCHAR(255) NOT NULL,
+    code       VARCHAR(255) NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    used       BIT(1)       NOT NULL,
+    attempts   INT          NOT NULL,
+    created_at DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS password_history (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    username      VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    created_at    DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
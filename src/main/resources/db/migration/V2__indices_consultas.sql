@@ -0,0 +1,19 @@
+-- Índices para as consultas quentes. endereco(cliente_id) e cliente_modalidade(cliente_id, ...)
+-- já existem: o InnoDB exige índice na FK e a PK da tabela de junção começa por cliente_id.
+
+-- listagem ordenada por nome/dataNascimento, inclusive keyset (chave + id)
+CREATE INDEX idx_cliente_nome_id ON cliente (nome, id);
+CREATE INDEX idx_cliente_nascimento_id ON cliente (data_nascimento, id);
+
+-- relatórios por modalidade (join/semi-join a partir da modalidade)
+CREATE INDEX idx_cliente_modalidade_mod_cli ON cliente_modalidade (modalidade_id, cliente_id);
+
+-- RefreshTokenService.revokeAll(username)
+CREATE INDEX idx_refresh_token_username ON refresh_token (username, revoked);
+
+-- findTopByEmailAndUsedFalseOrderByIdDesc
+CREATE INDEX idx_verification_token_email ON verification_token (email, used, id);
+CREATE INDEX idx_password_reset_token_email ON password_reset_token (email, used, id);
+
+-- findTop5ByUsernameOrderByCreatedAtDesc
+CREATE INDEX idx_password_history_username ON password_history (username, created_at);
@@ -0,0 +1,18 @@
+-- Contadores do dashboard mantidos por delta na mesma transação das escritas em cliente.
+-- dimensao: status (chave true/false), modalidade (chave = id), uf (chave = UF; cliente conta 1x por UF)
+CREATE TABLE IF NOT EXISTS cliente_estatistica (
+    dimensao VARCHAR(20) NOT NULL,
+    chave    VARCHAR(64) NOT NULL,
+    total    BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimensao, chave)
+) ENGINE = InnoDB;
+
+-- carga inicial a partir dos dados existentes
+INSERT INTO cliente_estatistica (dimensao, chave, total)
+SELECT 'status', IF(enabled, 'true', 'false'), COUNT(*) FROM cliente GROUP BY enabled;
+
+INSERT INTO cliente_estatistica (dimensao, chave, total)
+SELECT 'modalidade', CAST(modalidade_id AS CHAR), COUNT(*) FROM cliente_modalidade GROUP BY modalidade_id;
+
+INSERT INTO cliente_estatistica (dimensao, chave, total)
+SELECT 'uf', UPPER(uf), COUNT(DISTINCT cliente_id) FROM endereco WHERE uf IS NOT NULL GROUP BY UPPER(uf);
@@ -0,0 +1,9 @@
+-- Chave mês/dia do nascimento (MMDD, ex.: 1231) para "aniversariantes dos próximos N dias" por índice.
+-- Mantida pela entidade (@PrePersist/@PreUpdate); aqui só a carga dos dados existentes.
+ALTER TABLE cliente ADD COLUMN aniversario_md INT NULL;
+
+UPDATE cliente
+   SET aniversario_md = MONTH(data_nascimento) * 100 + DAY(data_nascimento)
+ WHERE data_nascimento IS NOT NULL;
+
+CREATE INDEX idx_cliente_aniversario_id ON cliente (aniversario_md, id);
@@ -0,0 +1,2 @@
+-- Relatório de geografia: GROUP BY uf / (uf, cidade) com COUNT(DISTINCT cliente_id) direto do índice
+CREATE INDEX idx_endereco_uf_cidade_cliente ON endereco (uf, cidade, cliente_id);
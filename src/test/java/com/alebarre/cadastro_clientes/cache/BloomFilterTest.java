@@ -0,0 +1,51 @@
+package com.alebarre.cadastro_clientes.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void semFalsoNegativo() {
+        BloomFilter f = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) f.put("cliente" + i + "@exemplo.com");
+        for (int i = 0; i < 10_000; i++) assertTrue(f.mightContain("cliente" + i + "@exemplo.com"));
+        assertEquals(10_000, f.insercoes());
+    }
+
+    @Test
+    void falsoPositivoPertoDoConfiguradoNaCapacidade() {
+        BloomFilter f = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) f.put("cliente" + i + "@exemplo.com");
+        int fp = 0, n = 100_000;
+        for (int i = 0; i < n; i++) if (f.mightContain("outro" + i + "@exemplo.com")) fp++;
+        double taxa = (double) fp / n;
+        assertTrue(taxa < 0.02, "taxa de falso positivo " + taxa);
+        assertEquals(taxa, f.fppEstimada(), 0.01);
+    }
+
+    @Test
+    void vazioNaoContemNada() {
+        BloomFilter f = new BloomFilter(100, 0.01);
+        assertFalse(f.mightContain("a@b.com"));
+        assertFalse(f.mightContain(""));
+        assertEquals(0.0, f.saturacao());
+    }
+
+    @Test
+    void dimensionamento() {
+        BloomFilter f = new BloomFilter(1_000_000, 0.01);
+        assertEquals(0, f.numBits() % 64);
+        assertTrue(f.numBits() >= 9_585_059, "m = -n ln(p) / ln(2)^2"); // ~9,6 bits por elemento
+        assertEquals(7, f.numHashes());                                   // k = m/n ln 2
+        assertEquals(64, new BloomFilter(1, 0.5).numBits());               // mínimo de uma palavra
+    }
+
+    @Test
+    void parametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,137 @@
+package com.alebarre.cadastro_clientes.security;
+
+import com.alebarre.cadastro_clientes.exception.ServicoSobrecarregadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    // "hash" que pode ser segurado pelo teste para ocupar o único thread do pool
+    private static final class Delegate implements PasswordEncoder {
+        final AtomicInteger chamadas = new AtomicInteger();
+        final CountDownLatch iniciou = new CountDownLatch(1);
+        volatile CountDownLatch segura = new CountDownLatch(0);
+
+        @Override
+        public String encode(CharSequence raw) {
+            chamadas.incrementAndGet();
+            iniciou.countDown();
+            try {
+                segura.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if ("erro".contentEquals(raw)) throw new IllegalStateException("falhou");
+            return "h:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            return encode(raw).equals(encoded);
+        }
+    }
+
+    private final Delegate delegate = new Delegate();
+    private final ExecutorService chamadores = Executors.newCachedThreadPool();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void parar() {
+        delegate.segura.countDown();
+        chamadores.shutdownNow();
+        if (encoder != null) encoder.parar();
+    }
+
+    private BoundedPasswordEncoder criar(int capacidadeFila, Duration timeoutFila) {
+        encoder = new BoundedPasswordEncoder(delegate, 1, capacidadeFila, timeoutFila);
+        return encoder;
+    }
+
+    // ocupa o único thread do pool até o teste liberar
+    private CountDownLatch ocupar(BoundedPasswordEncoder e) throws InterruptedException {
+        CountDownLatch libera = new CountDownLatch(1);
+        delegate.segura = libera;
+        chamadores.submit(() -> e.encode("ocupa"));
+        assertTrue(delegate.iniciou.await(5, TimeUnit.SECONDS));
+        return libera;
+    }
+
+    @Test
+    void delegaEncodeMatchesEExcecoes() {
+        BoundedPasswordEncoder e = criar(10, Duration.ofSeconds(5));
+        assertEquals("h:senha", e.encode("senha"));
+        assertTrue(e.matches("senha", "h:senha"));
+        assertFalse(e.matches("outra", "h:senha"));
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> e.encode("erro"));
+        assertEquals("falhou", ex.getMessage()); // exceção do delegate sai sem embrulho
+    }
+
+    @Test
+    void filaCheiaRejeitaNaHora() throws Exception {
+        BoundedPasswordEncoder e = criar(1, Duration.ofSeconds(30));
+        CountDownLatch libera = ocupar(e);
+        Future<String> naFila = chamadores.submit(() -> e.encode("fila"));
+        while (!Integer.valueOf(1).equals(e.metricas().get("naFila"))) Thread.sleep(5);
+
+        long ini = System.nanoTime();
+        ServicoSobrecarregadoException ex = assertThrows(ServicoSobrecarregadoException.class, () -> e.encode("x"));
+        assertTrue(System.nanoTime() - ini < TimeUnit.SECONDS.toNanos(5), "não deveria esperar o timeout");
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1L, e.metricas().get("rejeitados"));
+
+        libera.countDown();
+        assertEquals("h:fila", naFila.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timeoutNaFilaCancelaOHash() throws Exception {
+        BoundedPasswordEncoder e = criar(10, Duration.ofMillis(100));
+        CountDownLatch libera = ocupar(e);
+
+        assertThrows(ServicoSobrecarregadoException.class, () -> e.matches("x", "h:x"));
+        assertEquals(1L, e.metricas().get("timeoutsFila"));
+
+        // a tarefa desistida sai da fila sem chamar o delegate
+        libera.countDown();
+        assertEquals("h:depois", e.encode("depois"));
+        assertEquals(2, delegate.chamadas.get()); // "ocupa" + "depois"
+    }
+
+    @Test
+    void interrupcaoNaEsperaCancelaEPreservaOFlag() throws Exception {
+        BoundedPasswordEncoder e = criar(10, Duration.ofSeconds(30));
+        CountDownLatch libera = ocupar(e);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(ServicoSobrecarregadoException.class, () -> e.encode("x"));
+        } finally {
+            assertTrue(Thread.interrupted(), "flag de interrupção deve ser restaurado");
+        }
+
+        libera.countDown();
+        assertEquals("h:depois", e.encode("depois"));
+        assertEquals(2, delegate.chamadas.get());
+    }
+
+    @Test
+    void hashJaIniciadoTerminaMesmoComTimeout() throws Exception {
+        BoundedPasswordEncoder e = criar(10, Duration.ofMillis(50));
+        CountDownLatch libera = new CountDownLatch(1);
+        delegate.segura = libera;
+        Future<String> r = chamadores.submit(() -> e.encode("lento"));
+        assertTrue(delegate.iniciou.await(5, TimeUnit.SECONDS));
+        Thread.sleep(150); // passou do timeout de fila, mas o hash já começou
+
+        libera.countDown();
+        assertEquals("h:lento", r.get(5, TimeUnit.SECONDS));
+        assertEquals(0L, e.metricas().get("timeoutsFila"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.alebarre.cadastro_clientes.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GcraLimiterTest {
+
+    private static final long S = 1_000_000_000L;
+
+    // 5 fichas por 5s: uma ficha reposta a cada 1s, rajada de até 5
+    private final GcraLimiter limiter = new GcraLimiter(5, Duration.ofSeconds(5), 100);
+
+    @Test
+    void rajadaAteOLimiteDepoisBloqueia() {
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 5; i++) assertEquals(0, limiter.reservar("a", t0), "tentativa " + (i + 1));
+        assertEquals(S, limiter.reservar("a", t0));           // próxima ficha em 1s
+        assertEquals(S / 2, limiter.reservar("a", t0 + S / 2));
+        assertEquals(0, limiter.reservar("b", t0));           // chaves independentes
+    }
+
+    @Test
+    void bloqueioNaoConsomeEFichaVoltaNoTempoInformado() {
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 5; i++) limiter.reservar("a", t0);
+        long espera = 0;
+        for (int i = 0; i < 10; i++) espera = limiter.reservar("a", t0);
+        assertEquals(S, espera);                               // tentativas bloqueadas não empurram o TAT
+        assertEquals(0, limiter.reservar("a", t0 + espera));
+        assertTrue(limiter.reservar("a", t0 + espera) > 0);    // só uma ficha voltou
+        assertEquals(0, limiter.reservar("a", t0 + 7 * S));
+    }
+
+    @Test
+    void devolverELimpar() {
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 5; i++) limiter.reservar("a", t0);
+        limiter.devolver("a");
+        assertEquals(0, limiter.reservar("a", t0));
+        assertTrue(limiter.reservar("a", t0) > 0);
+
+        limiter.limpar("a");
+        for (int i = 0; i < 5; i++) assertEquals(0, limiter.reservar("a", t0));
+        limiter.devolver("inexistente"); // sem efeito
+    }
+
+    @Test
+    void segundosArredondaParaCimaComMinimoDeUm() {
+        assertEquals(1, GcraLimiter.segundos(0));
+        assertEquals(1, GcraLimiter.segundos(1));
+        assertEquals(1, GcraLimiter.segundos(S));
+        assertEquals(2, GcraLimiter.segundos(S + 1));
+        assertEquals(60, GcraLimiter.segundos(60 * S));
+    }
+
+    @Test
+    void mapaCheioNaoRecusaChaveNovaERemoveAsMaisOciosas() {
+        GcraLimiter l = new GcraLimiter(5, Duration.ofSeconds(5), 10);
+        long t0 = System.nanoTime();
+        long ms = S / 1000;
+        // k0..k8 com uma ficha gasta em instantes diferentes (TAT crescente); k9 gasta tudo e fica bloqueada
+        for (int i = 0; i < 9; i++) assertEquals(0, l.reservar("k" + i, t0 + i * ms));
+        for (int i = 0; i < 5; i++) assertEquals(0, l.reservar("k9", t0));
+        assertTrue(l.reservar("k9", t0) > 0);
+
+        assertEquals(0, l.reservar("nova", t0 + 10 * ms));    // nunca fail closed
+        assertEquals(1L, l.stats().get("removidasMapaCheio")); // só a de menor TAT saiu (10 -> 9)
+        assertEquals(10, l.stats().get("chaves"));
+        assertTrue(l.reservar("k9", t0) > 0);                  // quem estava bloqueado continua
+    }
+
+    @Test
+    void mapaCheioRemoveOciosasPrimeiro() {
+        GcraLimiter l = new GcraLimiter(5, Duration.ofSeconds(5), 2);
+        long t0 = System.nanoTime();
+        assertEquals(0, l.reservar("a", t0));
+        for (int i = 0; i < 5; i++) l.reservar("b", t0 + 3 * S);
+
+        // em t0 + 3s o TAT de "a" (t0 + 1s) já passou: sai "a", e "b" continua bloqueada
+        assertEquals(0, l.reservar("c", t0 + 3 * S));
+        assertTrue(l.reservar("b", t0 + 3 * S) > 0);
+        assertEquals(0L, l.stats().get("removidasMapaCheio"));
+    }
+
+    @Test
+    void reservasConcorrentesNuncaPassamDoLimite() throws Exception {
+        GcraLimiter l = new GcraLimiter(10, Duration.ofMinutes(1), 100);
+        long t0 = System.nanoTime();
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger aceitas = new AtomicInteger();
+        try {
+            List<Future<?>> fs = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                fs.add(pool.submit(() -> {
+                    largada.await();
+                    for (int j = 0; j < 100; j++) if (l.reservar("k", t0) == 0) aceitas.incrementAndGet();
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> f : fs) f.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(10, aceitas.get());
+    }
+
+    @Test
+    void tentativasInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> new GcraLimiter(0, Duration.ofMinutes(1), 10));
+    }
+}
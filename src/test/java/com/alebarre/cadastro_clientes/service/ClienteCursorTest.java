@@ -0,0 +1,50 @@
+package com.alebarre.cadastro_clientes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteCursorTest {
+
+    @Test
+    void encodeDecodePreservaTipoDoValor() {
+        assertEquals(new ClienteCursor("nome", "asc", "Ana", 10L),
+                ClienteCursor.decode(new ClienteCursor("nome", "asc", "Ana", 10L).encode()));
+        assertEquals(new ClienteCursor("dataNascimento", "desc", LocalDate.of(1990, 5, 1), 7L),
+                ClienteCursor.decode(new ClienteCursor("dataNascimento", "desc", LocalDate.of(1990, 5, 1), 7L).encode()));
+        assertEquals(new ClienteCursor("id", "asc", 42L, 42L),
+                ClienteCursor.decode(new ClienteCursor("id", "asc", 42L, 42L).encode()));
+    }
+
+    @Test
+    void valorNuloEValorComSeparador() {
+        ClienteCursor nulo = ClienteCursor.decode(new ClienteCursor("email", "asc", null, 3L).encode());
+        assertNull(nulo.valor());
+        assertEquals(3L, nulo.id());
+
+        // o valor é o último campo: '|', '+' e '-' dentro dele não quebram o token
+        ClienteCursor c = new ClienteCursor("nome", "asc", "a|b+-c", 1L);
+        assertEquals(c, ClienteCursor.decode(c.encode()));
+        ClienteCursor vazio = new ClienteCursor("nome", "asc", "", 1L);
+        assertEquals(vazio, ClienteCursor.decode(vazio.encode()));
+    }
+
+    @Test
+    void tokenEUrlSafeSemPadding() {
+        String t = new ClienteCursor("nome", "asc", "ção?>>", 99L).encode();
+        assertTrue(t.matches("[A-Za-z0-9_-]+"), t);
+    }
+
+    @Test
+    void tokenInvalidoViraIllegalArgument() {
+        for (String t : new String[]{"", "!!!", "bm9tZXxhc2M", // "nome|asc"
+                new ClienteCursor("senha", "asc", "x", 1L).encode(),
+                new ClienteCursor("id", "asc", "abc", 1L).encode(),
+                new ClienteCursor("dataNascimento", "asc", "ontem", 1L).encode()}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ClienteCursor.decode(t), t);
+            assertEquals("Cursor inválido", e.getMessage());
+        }
+    }
+}
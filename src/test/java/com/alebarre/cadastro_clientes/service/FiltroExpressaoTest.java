@@ -0,0 +1,92 @@
+package com.alebarre.cadastro_clientes.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroExpressaoTest {
+
+    private static FiltroExpressao parse(String expr) {
+        return FiltroExpressao.parse(expr, 10);
+    }
+
+    private static String erro(String expr) {
+        return assertThrows(IllegalArgumentException.class, () -> parse(expr), expr).getMessage();
+    }
+
+    @Test
+    void vazioNaoFiltra() {
+        assertNull(parse(null));
+        assertNull(parse("   "));
+    }
+
+    @Test
+    void formaCanonica() {
+        FiltroExpressao f = parse(" uf == SP ; nome=='Ana*' ; (modalidade=in=(1, 3) , id=gt=5) ");
+        assertEquals("(uf==(\"SP\");nome==(\"Ana*\");(modalidade=in=(\"1\",\"3\"),id=gt=(\"5\")))", f.canonica());
+        assertEquals(4, f.predicados());
+        assertFalse(f.dependeDeHoje());
+        assertNotNull(f.spec());
+
+        // espaços e aspas de entrada não mudam a chave; maiúsculas no nome do campo também não
+        assertEquals(parse("UF==SP;nome==\"Ana*\";(modalidade=in=(1,3),id=gt=5)").canonica(), f.canonica());
+    }
+
+    @Test
+    void canonicaDistingueVirgulaDentroDeAspas() {
+        String umValor = parse("nome=in=(\"a,b\")").canonica();
+        String doisValores = parse("nome=in=(a,b)").canonica();
+        assertEquals("nome=in=(\"a,b\")", umValor);
+        assertEquals("nome=in=(\"a\",\"b\")", doisValores);
+        assertNotEquals(umValor, doisValores);
+
+        assertEquals("nome==(\"a\\\"b\\\\\")", parse("nome=='a\"b\\'").canonica());
+    }
+
+    @Test
+    void idadeDependeDeHoje() {
+        assertTrue(parse("idade=ge=18").dependeDeHoje());
+        assertTrue(parse("id==1;idade==30").dependeDeHoje());
+    }
+
+    @Test
+    void exigeComparacaoIndexada() {
+        assertTrue(erro("enabled==true").contains("indexada"));
+        assertTrue(erro("cidade==Campinas").contains("indexada"));
+        assertTrue(erro("uf!=SP").contains("indexada"));
+        assertTrue(erro("modalidade=out=(1,2)").contains("indexada"));
+        assertTrue(erro("uf==SP,enabled==true").contains("indexada")); // OU: todos os ramos
+
+        assertNotNull(parse("enabled==true;uf==SP"));                  // E: basta um
+        assertNotNull(parse("cidade==Campinas;uf!=RJ;id=ge=1"));
+        assertNotNull(parse("(uf==SP;enabled==false),(uf==RJ;cidade==Niteroi)"));
+    }
+
+    @Test
+    void limites() {
+        assertTrue(erro("id==1;id==2;id==3;id==4;id==5;id==6;id==7;id==8;id==9;id==10;id==11").contains("10 comparações"));
+        assertTrue(erro("nome==" + "a".repeat(FiltroExpressao.MAX_TAMANHO)).contains("muito longo"));
+
+        StringBuilder ids = new StringBuilder("id=in=(0");
+        for (int i = 1; i <= FiltroExpressao.MAX_VALORES; i++) ids.append(',').append(i);
+        assertTrue(erro(ids.append(')').toString()).contains("mais de " + FiltroExpressao.MAX_VALORES + " valores"));
+    }
+
+    @Test
+    void errosDeSintaxeEValor() {
+        assertTrue(erro("senha==x").contains("Campo não permitido"));
+        assertTrue(erro("nome=gt=Ana").contains("não permitido para nome"));
+        assertTrue(erro("id=~=1").contains("Operador desconhecido"));
+        assertTrue(erro("id==").contains("esperado valor"));
+        assertTrue(erro("(id==1").contains("esperado ')'"));
+        assertTrue(erro("id==1)").contains("fim da expressão"));
+        assertTrue(erro("nome=='Ana").contains("aspas de fechamento"));
+        assertTrue(erro("id==(1,2)").contains("=in="));
+        assertTrue(erro("nome==*Ana").contains("Curinga"));
+        assertTrue(erro("nome==A*na").contains("Curinga"));
+        assertTrue(erro("id==abc").contains("Valor inválido para id"));
+        assertTrue(erro("dataNascimento=ge=2020-13-01").contains("Valor inválido para datanascimento"));
+        assertTrue(erro("aniversario==13-01").contains("Aniversário inválido"));
+        assertTrue(erro("enabled==talvez;id==1").contains("booleano"));
+    }
+}